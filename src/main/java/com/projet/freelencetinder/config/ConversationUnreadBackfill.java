@@ -0,0 +1,80 @@
+package com.projet.freelencetinder.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rattrapage unique des compteurs de non-lus de Conversation (unread_for_client /
+ * unread_for_freelance) à partir des messages non lus existants.
+ *
+ * Les colonnes sont ajoutées par Hibernate (ddl-auto=update) avec la valeur 0 :
+ * sans ce rattrapage, les conversations antérieures afficheraient 0 non-lu
+ * jusqu’au message suivant.
+ *
+ * Idempotent et exécuté une seule fois, même à plusieurs nœuds : la ligne
+ * témoin de schema_backfill est insérée dans la même transaction que l’UPDATE
+ * (ON CONFLICT DO NOTHING) ; un second démarrage, ou un nœud concurrent qui
+ * attend le verrou de la clé, ne trouve rien à insérer et ne recompte pas.
+ */
+@Component
+public class ConversationUnreadBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ConversationUnreadBackfill.class);
+    private static final String NOM = "conversation_unread_counters";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+
+    public ConversationUnreadBackfill(JdbcTemplate jdbc, PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.tx   = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            jdbc.execute("""
+                CREATE TABLE IF NOT EXISTS schema_backfill (
+                    nom         varchar(100) PRIMARY KEY,
+                    applique_le timestamp NOT NULL
+                )
+                """);
+            Integer conversations = tx.execute(status -> {
+                int premiere = jdbc.update(
+                        "INSERT INTO schema_backfill (nom, applique_le) VALUES (?, now()) ON CONFLICT DO NOTHING",
+                        NOM);
+                if (premiere == 0) return null;
+
+                // Verrouille chaque conversation mise à jour : un incrément concurrent
+                // attend le commit puis s’applique sur le compte rattrapé
+                return jdbc.update("""
+                    UPDATE conversation c
+                    SET unread_for_client    = n.pour_client,
+                        unread_for_freelance = n.pour_freelance
+                    FROM (
+                        SELECT m.conversation_id,
+                               count(*) FILTER (WHERE m.receiver_id = cv.client_id)    AS pour_client,
+                               count(*) FILTER (WHERE m.receiver_id = cv.freelance_id) AS pour_freelance
+                        FROM chat_message m
+                        JOIN conversation cv ON cv.id = m.conversation_id
+                        WHERE m.seen = false
+                        GROUP BY m.conversation_id
+                    ) n
+                    WHERE c.id = n.conversation_id
+                    """);
+            });
+            if (conversations != null) {
+                log.info("Compteurs de non-lus rattrapés pour {} conversation(s)", conversations);
+            }
+        } catch (DataAccessException e) {
+            log.error("Rattrapage des compteurs de non-lus non appliqué (réessayé au prochain démarrage)", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.projet.freelencetinder.config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+/**
+ * Destinations /topic/** vers le broker externe (mode relais).
+ *
+ * RabbitMQ refuse un '/' dans le nom d’un /topic ("Invalid destination") :
+ * les segments après /topic/ sont joints par des points
+ * (/topic/conversations/42 -> /topic/conversations.42).
+ * Posé sur le canal entrant (SUBSCRIBE / SEND des clients, après
+ * StompAuthChannelInterceptor) et sur le canal broker (envois du serveur) :
+ * clients et services gardent les destinations habituelles. Les trames MESSAGE
+ * reçues portent la forme pointée ; les clients STOMP les associent par id
+ * d’abonnement.
+ */
+public class DestinationRelaisInterceptor implements ChannelInterceptor {
+
+    private static final String TOPIC = "/topic/";
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || !destination.startsWith(TOPIC)
+                || destination.indexOf('/', TOPIC.length()) < 0) {
+            return message;
+        }
+        if (!(MessageHeaderAccessor.getMutableAccessor(message) instanceof SimpMessageHeaderAccessor accessor)) {
+            return message;
+        }
+        accessor.setDestination(TOPIC + destination.substring(TOPIC.length()).replace('/', '.'));
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,115 @@
+package com.projet.freelencetinder.config;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.projet.freelencetinder.models.Utilisateur.Langue;
+
+/**
+ * Recherche plein texte des missions (PostgreSQL) : une colonne tsvector générée
+ * par langue (titre pondéré A, description pondérée B) + un index GIN chacune.
+ *
+ * Hibernate (ddl-auto=update) ne sait pas créer de colonnes générées : le DDL
+ * est appliqué ici au démarrage et il est idempotent (IF NOT EXISTS).
+ * La configuration "arabic" n’existe qu’à partir de PostgreSQL 13 ; à défaut
+ * on retombe sur "simple" (pas de racinisation).
+ *
+ * La configuration figée dans l’expression de la colonne fait foi : elle est relue
+ * dans le catalogue après le DDL et c’est elle que {@link #config} renvoie à la
+ * requête. Une colonne générée avec une autre configuration que celle voulue
+ * (ex. "simple" avant une montée de version de PostgreSQL) est recréée.
+ */
+@Component
+public class MissionSearchSchema implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MissionSearchSchema.class);
+    private static final Pattern CONFIG_COLONNE = Pattern.compile("to_tsvector\\('([^']+)'::regconfig");
+
+    private final JdbcTemplate jdbc;
+    private final Map<Langue, String> configs = new EnumMap<>(Langue.class);
+    private volatile boolean disponible = false;
+
+    public MissionSearchSchema(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+        configs.put(Langue.FR, "french");
+        configs.put(Langue.EN, "english");
+        configs.put(Langue.AR, "arabic");
+    }
+
+    /** Colonne tsvector de la langue (nom fixe, jamais issu de la requête HTTP). */
+    public static String colonne(Langue langue) {
+        return "search_" + langue.name().toLowerCase(Locale.ROOT);
+    }
+
+    /** Configuration text search utilisée à la fois par la colonne et par la requête. */
+    public String config(Langue langue) {
+        return configs.get(langue);
+    }
+
+    public boolean estDisponible() {
+        return disponible;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            Integer arabic = jdbc.queryForObject(
+                    "SELECT count(*) FROM pg_ts_config WHERE cfgname = 'arabic'", Integer.class);
+            if (arabic == null || arabic == 0) configs.put(Langue.AR, "simple");
+
+            for (Langue langue : Langue.values()) {
+                String col = colonne(langue);
+                String cfg = config(langue);
+                String enPlace = configColonne(col);
+                if (enPlace != null && !enPlace.equals(cfg)) {
+                    log.warn("Colonne {} générée avec '{}' au lieu de '{}' : recréée", col, enPlace, cfg);
+                    jdbc.execute("ALTER TABLE mission DROP COLUMN " + col);   // l’index GIN suit
+                }
+                jdbc.execute("""
+                    ALTER TABLE mission ADD COLUMN IF NOT EXISTS %1$s tsvector
+                    GENERATED ALWAYS AS (
+                        setweight(to_tsvector('%2$s'::regconfig, coalesce(titre, '')), 'A') ||
+                        setweight(to_tsvector('%2$s'::regconfig, coalesce(description, '')), 'B')
+                    ) STORED
+                    """.formatted(col, cfg));
+                jdbc.execute("CREATE INDEX IF NOT EXISTS idx_mission_%1$s ON mission USING GIN (%1$s)"
+                        .formatted(col));
+
+                enPlace = configColonne(col);
+                if (enPlace == null) {
+                    throw new IllegalStateException("Configuration de la colonne " + col + " illisible");
+                }
+                configs.put(langue, enPlace);
+            }
+            disponible = true;
+            log.info("Recherche plein texte des missions prête ({})", configs);
+        } catch (DataAccessException | IllegalStateException e) {
+            log.error("Recherche plein texte indisponible : schéma tsvector non appliqué", e);
+        }
+    }
+
+    /* Configuration figée dans l’expression de la colonne générée, null si la colonne n’existe pas. */
+    private String configColonne(String col) {
+        List<String> expr = jdbc.queryForList("""
+                SELECT pg_get_expr(d.adbin, d.adrelid)
+                FROM pg_attrdef d
+                JOIN pg_attribute a ON a.attrelid = d.adrelid AND a.attnum = d.adnum
+                WHERE d.adrelid = 'mission'::regclass AND a.attname = ? AND NOT a.attisdropped
+                """, String.class, col);
+        if (expr.isEmpty()) return null;
+        Matcher m = CONFIG_COLONNE.matcher(expr.get(0));
+        return m.find() ? m.group(1) : null;
+    }
+}
@@ -63,7 +63,7 @@ public class SecurityConfig {
 
                 // >> AJOUTS IMPORTANTS <<
                 .requestMatchers("/api/swipes/**").permitAll()     // tests swipe
-                .requestMatchers("/ws/**").permitAll()             // SockJS /ws & /ws/info
+                .requestMatchers("/ws/**").permitAll()             // SockJS /ws & /ws/info (auth au CONNECT STOMP)
                 .requestMatchers("/api/missions/**").permitAll()   // lecture missions
                 .requestMatchers("/api/utilisateurs/**").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/conversations/init").authenticated()
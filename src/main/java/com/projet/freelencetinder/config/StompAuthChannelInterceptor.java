@@ -0,0 +1,145 @@
+package com.projet.freelencetinder.config;
+
+import java.security.Principal;
+import java.util.Date;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.ConversationParticipantCache;
+import com.projet.freelencetinder.servcie.JwtService;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Authentification des sessions STOMP.
+ *
+ * Au CONNECT (et seulement là) : access token de l’en-tête STOMP
+ * "Authorization: Bearer …" validé par JwtService, ou à défaut principal de la
+ * poignée de main HTTP (déjà authentifiée par JwtAuthenticationFilter).
+ * L’id est stocké dans un {@link StompPrincipal} que Spring réattache à chaque
+ * trame suivante ; les claims restent dans les attributs de session et leur
+ * expiration est vérifiée à chaque SEND / SUBSCRIBE sans re-parser le token
+ * (session ouverte par la poignée de main HTTP : pas de claims, pas d’expiration).
+ * Un CONNECT sans identité valide est refusé, de même que toute trame
+ * SEND / SUBSCRIBE d’une session non authentifiée ou expirée.
+ *
+ * SEND : uniquement vers /app/** (contrôleurs @MessageMapping, qui vérifient
+ * l’appartenance) ; un envoi direct vers le broker (/topic, /queue, /user)
+ * permettrait d’injecter des messages dans n’importe quelle conversation.
+ *
+ * SUBSCRIBE à /topic/conversations/{id} : réservé aux deux participants
+ * (ConversationParticipantCache, sans requête quand l’entrée est en cache) ;
+ * un id non numérique ou une conversation inconnue est refusé. Toute destination
+ * à joker est refusée (/topic/** du broker simple, /topic/# de RabbitMQ
+ * recevraient toutes les conversations), de même que la forme pointée du
+ * relais (/topic/conversations.{id}) : seule la forme canonique est vérifiée.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    /** Attribut de session : claims du JWT présenté au CONNECT. */
+    static final String ATTR_CLAIMS = "jwt.claims";
+
+    private static final String PREFIXE_APP = "/app/";
+    private static final String TOPIC_CONVERSATIONS = "/topic/conversations/";
+    private static final Pattern JOKERS = Pattern.compile("[*#?{}]");
+
+    private final JwtService jwtService;
+    private final UtilisateurRepository userRepo;
+    private final ConversationParticipantCache participants;
+
+    public StompAuthChannelInterceptor(JwtService jwtService,
+                                       UtilisateurRepository userRepo,
+                                       ConversationParticipantCache participants) {
+        this.jwtService = jwtService;
+        this.userRepo = userRepo;
+        this.participants = participants;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor =
+                MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) return message;   // heartbeat
+
+        switch (accessor.getCommand()) {
+            case CONNECT -> authentifier(accessor);
+            case SEND -> {
+                utilisateur(accessor);
+                verifierEnvoi(accessor.getDestination());
+            }
+            case SUBSCRIBE -> verifierAbonnement(utilisateur(accessor), accessor.getDestination());
+            default -> { }
+        }
+        return message;
+    }
+
+    private static StompPrincipal utilisateur(StompHeaderAccessor accessor) {
+        if (!(accessor.getUser() instanceof StompPrincipal p)) {
+            throw new AccessDeniedException("Session STOMP non authentifiée");
+        }
+        Map<String, Object> attrs = accessor.getSessionAttributes();
+        if (attrs != null && attrs.get(ATTR_CLAIMS) instanceof Claims claims
+                && claims.getExpiration() != null && claims.getExpiration().before(new Date())) {
+            throw new AccessDeniedException("Token STOMP expiré : se reconnecter");
+        }
+        return p;
+    }
+
+    private static void verifierEnvoi(String destination) {
+        if (destination == null || !destination.startsWith(PREFIXE_APP)) {
+            throw new AccessDeniedException("Envoi refusé: " + destination);
+        }
+    }
+
+    private void verifierAbonnement(StompPrincipal user, String destination) {
+        if (destination == null) return;
+        if (JOKERS.matcher(destination).find()
+                || (destination.startsWith("/topic/conversations") && !destination.startsWith(TOPIC_CONVERSATIONS))) {
+            throw new AccessDeniedException("Abonnement refusé: " + destination);
+        }
+        if (!destination.startsWith(TOPIC_CONVERSATIONS)) return;
+        long conversationId;
+        try {
+            conversationId = Long.parseLong(destination.substring(TOPIC_CONVERSATIONS.length()));
+        } catch (NumberFormatException e) {
+            throw new AccessDeniedException("Abonnement refusé: " + destination);
+        }
+        try {
+            if (participants.get(conversationId).contient(user.userId())) return;
+        } catch (IllegalArgumentException e) {
+            // Conversation inexistante : même réponse qu’un accès refusé
+        }
+        throw new AccessDeniedException("Abonnement refusé: " + destination);
+    }
+
+    private void authentifier(StompHeaderAccessor accessor) {
+        String email;
+        String header = accessor.getFirstNativeHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            Claims claims = jwtService.parseAccessToken(header.substring(7));
+            if (claims == null) throw new AccessDeniedException("Token STOMP invalide ou expiré");
+            Map<String, Object> attrs = accessor.getSessionAttributes();
+            if (attrs != null) attrs.put(ATTR_CLAIMS, claims);
+            email = claims.getSubject();
+        } else {
+            Principal handshake = accessor.getUser();
+            if (handshake == null) throw new AccessDeniedException("CONNECT STOMP sans authentification");
+            email = handshake.getName();
+        }
+
+        Long id = userRepo.findIdByEmail(email)
+                .orElseThrow(() -> new AccessDeniedException("Utilisateur WS introuvable: " + email));
+        accessor.setUser(new StompPrincipal(id, email));
+    }
+}
@@ -0,0 +1,15 @@
+package com.projet.freelencetinder.config;
+
+import java.security.Principal;
+
+/**
+ * Identité d’une session STOMP, résolue une seule fois au CONNECT.
+ * Le nom reste l’email : c’est lui qui sert aux destinations /user/** (convertAndSendToUser).
+ */
+public record StompPrincipal(Long userId, String email) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
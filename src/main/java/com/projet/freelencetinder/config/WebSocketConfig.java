@@ -1,17 +1,34 @@
 package com.projet.freelencetinder.config;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.socket.config.annotation.*;
+import org.springframework.web.socket.messaging.StompSubProtocolErrorHandler;
 
 @Configuration
 @EnableWebSocketMessageBroker
 @EnableScheduling
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthChannelInterceptor authInterceptor;
+    private final WebSocketProperties props;
+
+    public WebSocketConfig(StompAuthChannelInterceptor authInterceptor,
+                           WebSocketProperties props) {
+        this.authInterceptor = authInterceptor;
+        this.props = props;
+    }
+
     /**
      * Scheduler dédié pour émettre les heartbeats STOMP.
      * Le nom stompTaskScheduler n'entre pas en conflit
@@ -21,28 +38,112 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Bean
     public ThreadPoolTaskScheduler stompTaskScheduler() {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
-        scheduler.setPoolSize(1);
+        scheduler.setPoolSize(props.getHeartbeatThreads());
         scheduler.setThreadNamePrefix("stomp-heartbeat-");
         return scheduler;
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry
-            .enableSimpleBroker("/topic", "/queue")
-            .setHeartbeatValue(new long[]{15_000, 15_000})
-            // on branche ici notre scheduler renommé
-            .setTaskScheduler(stompTaskScheduler());
+        WebSocketProperties.Broker broker = props.getBroker();
+
+        if (broker.isRelay()) {
+            // Broker externe : abonnements partagés entre nœuds (chat, matches, notifications).
+            // Les destinations /user/** non résolues localement sont diffusées aux autres nœuds.
+            registry
+                .enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(broker.getRelayHost())
+                .setRelayPort(broker.getRelayPort())
+                .setClientLogin(broker.getLogin())
+                .setClientPasscode(broker.getPasscode())
+                .setSystemLogin(broker.getLogin())
+                .setSystemPasscode(broker.getPasscode())
+                .setVirtualHost(broker.getVirtualHost())
+                .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                .setUserRegistryBroadcast("/topic/simp-user-registry");
+            // Envois du serveur (convertAndSend) : forme /topic/a.b acceptée par RabbitMQ
+            registry.configureBrokerChannel().interceptors(new DestinationRelaisInterceptor());
+        } else {
+            registry
+                .enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[]{15_000, 15_000})
+                // on branche ici notre scheduler renommé
+                .setTaskScheduler(stompTaskScheduler());
+        }
 
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
     }
 
+    /** Identité résolue une fois au CONNECT (voir StompAuthChannelInterceptor) ; en mode
+        relais, destinations /topic réécrites après l’autorisation (DestinationRelaisInterceptor). */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(authInterceptor);
+        if (props.getBroker().isRelay()) registration.interceptors(new DestinationRelaisInterceptor());
+        configurerCanal(registration, props.getInbound(), "ws-inbound-");
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configurerCanal(registration, props.getOutbound(), "ws-outbound-");
+    }
+
+    /* Limites par session : un client lent est coupé (délai / tampon dépassé)
+       au lieu de retenir les threads du canal sortant partagé. */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        WebSocketProperties.Transport t = props.getTransport();
+        registration
+            .setMessageSizeLimit(t.getMessageSizeLimit())
+            .setSendBufferSizeLimit(t.getSendBufferSizeLimit())
+            .setSendTimeLimit(t.getSendTimeLimitMs());
+    }
+
+    /* Pool borné : file pleine et pool au maximum, le thread appelant traite le
+       message lui-même (CallerRuns) au lieu de le rejeter ; le lecteur de la
+       session (entrant) ou le broker (sortant) ralentit, rien n’est perdu.
+       Threads virtuels : ni limite de concurrence ni file, donc aucune
+       profondeur de file dans WebSocketMessageBrokerStats. */
+    private void configurerCanal(ChannelRegistration registration,
+                                 WebSocketProperties.Canal canal,
+                                 String prefixe) {
+        if (canal.isVirtualThreads()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefixe);
+            executor.setVirtualThreads(true);
+            registration.executor(executor);
+        } else {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setThreadNamePrefix(prefixe);
+            executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+            registration.taskExecutor(executor)
+                .corePoolSize(canal.getCorePoolSize())
+                .maxPoolSize(canal.getMaxPoolSize())
+                .queueCapacity(canal.getQueueCapacity());
+        }
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS()
                 .setHeartbeatTime(15_000);
+        registry.setErrorHandler(new RefusStompErrorHandler());
+    }
+
+    /* Trame ERROR d’un refus (StompAuthChannelInterceptor) : motif du refus dans l’en-tête
+       message, au lieu du « Failed to send message to … » de l’exception d’enveloppe. */
+    static class RefusStompErrorHandler extends StompSubProtocolErrorHandler {
+
+        @Override
+        public Message<byte[]> handleClientMessageProcessingError(Message<byte[]> clientMessage, Throwable ex) {
+            for (Throwable t = ex; t != null; t = t.getCause()) {
+                if (t instanceof AccessDeniedException) {
+                    return super.handleClientMessageProcessingError(clientMessage, t);
+                }
+            }
+            return super.handleClientMessageProcessingError(clientMessage, ex);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.projet.freelencetinder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Réglages STOMP / WebSocket (préfixe app.websocket).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.websocket")
+public class WebSocketProperties {
+
+    private final Broker broker = new Broker();
+    private final Transport transport = new Transport();
+    private final Canal inbound = new Canal();
+    private final Canal outbound = new Canal();
+
+    private int heartbeatThreads = 2;
+    private long statsLogMs = 60_000;        // journal WebSocketMessageBrokerStats (files d’attente)
+
+    public Broker getBroker()       { return broker; }
+    public Transport getTransport() { return transport; }
+    public Canal getInbound()       { return inbound; }
+    public Canal getOutbound()      { return outbound; }
+
+    public int  getHeartbeatThreads()                     { return heartbeatThreads; }
+    public void setHeartbeatThreads(int heartbeatThreads) { this.heartbeatThreads = heartbeatThreads; }
+
+    public long getStatsLogMs()                { return statsLogMs; }
+    public void setStatsLogMs(long statsLogMs) { this.statsLogMs = statsLogMs; }
+
+    /** Limites d’envoi par session WebSocket. */
+    public static class Transport {
+
+        private int messageSizeLimit = 64 * 1024;         // trame entrante max (octets)
+        private int sendBufferSizeLimit = 512 * 1024;     // tampon sortant max par session (octets)
+        private int sendTimeLimitMs = 10_000;             // durée max d’un envoi vers une session
+
+        /* ===== getters / setters ===== */
+        public int  getMessageSizeLimit()                     { return messageSizeLimit; }
+        public void setMessageSizeLimit(int messageSizeLimit) { this.messageSizeLimit = messageSizeLimit; }
+
+        public int  getSendBufferSizeLimit()                        { return sendBufferSizeLimit; }
+        public void setSendBufferSizeLimit(int sendBufferSizeLimit) { this.sendBufferSizeLimit = sendBufferSizeLimit; }
+
+        public int  getSendTimeLimitMs()                    { return sendTimeLimitMs; }
+        public void setSendTimeLimitMs(int sendTimeLimitMs) { this.sendTimeLimitMs = sendTimeLimitMs; }
+    }
+
+    /**
+     * Exécuteur d’un canal client (entrant ou sortant).
+     * Pool : au-delà de maxPoolSize et queueCapacity, le thread appelant exécute la
+     * tâche (CallerRuns), aucun message n’est rejeté.
+     * virtualThreads=true : un thread virtuel par message, les tailles de pool sont
+     * ignorées ; ni limite de concurrence ni file, donc pas de profondeur de file
+     * dans le journal WebSocketMessageBrokerStats.
+     */
+    public static class Canal {
+
+        private boolean virtualThreads = false;
+        private int corePoolSize = 8;
+        private int maxPoolSize = 32;
+        private int queueCapacity = 1_000;
+
+        /* ===== getters / setters ===== */
+        public boolean isVirtualThreads()                     { return virtualThreads; }
+        public void    setVirtualThreads(boolean virtualThreads) { this.virtualThreads = virtualThreads; }
+
+        public int  getCorePoolSize()                 { return corePoolSize; }
+        public void setCorePoolSize(int corePoolSize) { this.corePoolSize = corePoolSize; }
+
+        public int  getMaxPoolSize()                { return maxPoolSize; }
+        public void setMaxPoolSize(int maxPoolSize) { this.maxPoolSize = maxPoolSize; }
+
+        public int  getQueueCapacity()                  { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    }
+
+    /**
+     * Broker des destinations /topic et /queue.
+     * relay=false : broker simple en mémoire (un seul nœud).
+     * relay=true  : relais vers un broker STOMP externe (RabbitMQ, ActiveMQ…),
+     *               nécessaire dès que plusieurs nœuds servent des WebSockets.
+     */
+    public static class Broker {
+
+        private boolean relay = false;
+        private String relayHost = "localhost";
+        private int relayPort = 61613;
+        private String login = "guest";       // sessions clientes et session système
+        private String passcode = "guest";
+        private String virtualHost;           // null : valeur par défaut du broker
+
+        /* ===== getters / setters ===== */
+        public boolean isRelay()                   { return relay; }
+        public void    setRelay(boolean relay)     { this.relay = relay; }
+
+        public String getRelayHost()               { return relayHost; }
+        public void   setRelayHost(String relayHost){ this.relayHost = relayHost; }
+
+        public int  getRelayPort()                 { return relayPort; }
+        public void setRelayPort(int relayPort)    { this.relayPort = relayPort; }
+
+        public String getLogin()                   { return login; }
+        public void   setLogin(String login)       { this.login = login; }
+
+        public String getPasscode()                { return passcode; }
+        public void   setPasscode(String passcode) { this.passcode = passcode; }
+
+        public String getVirtualHost()             { return virtualHost; }
+        public void   setVirtualHost(String virtualHost) { this.virtualHost = virtualHost; }
+    }
+}
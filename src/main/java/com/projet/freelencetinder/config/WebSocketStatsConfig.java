@@ -0,0 +1,17 @@
+package com.projet.freelencetinder.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+
+/**
+ * Période du journal des statistiques STOMP (sessions, canaux entrant/sortant :
+ * threads actifs, tâches en file, tâches terminées).
+ * Séparé de WebSocketConfig : le bean de stats dépend lui-même des configurers.
+ */
+@Configuration
+public class WebSocketStatsConfig {
+
+    public WebSocketStatsConfig(WebSocketMessageBrokerStats stats, WebSocketProperties props) {
+        stats.setLoggingPeriod(props.getStatsLogMs());
+    }
+}
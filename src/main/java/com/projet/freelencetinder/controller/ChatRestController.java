@@ -3,10 +3,13 @@ package com.projet.freelencetinder.controller;
 import com.projet.freelencetinder.dto.ChatMessageResponse;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
 import com.projet.freelencetinder.servcie.ChatMessageService;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/api/chat")
 public class ChatRestController extends BaseSecuredController {
@@ -19,14 +22,22 @@ public class ChatRestController extends BaseSecuredController {
         this.chatService = chatService;
     }
 
-    /* ------------------------------------------------------- */
+    /* -------------------------------------------------------
+       Historique par curseur :
+       GET /api/chat/conversations/{id}/messages?size=20
+       Messages plus anciens :
+           &beforeSentAt=<timestamp du dernier message>&beforeId=<son id>
+       ------------------------------------------------------- */
     @GetMapping("/conversations/{id}/messages")
-    public Page<ChatMessageResponse> getMessages(@PathVariable Long id,
-                                                 @RequestParam(defaultValue = "0") int page,
-                                                 @RequestParam(defaultValue = "20") int size) {
+    public Slice<ChatMessageResponse> getMessages(
+            @PathVariable Long id,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeSentAt,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
 
         Long currentUserId = getCurrentUserId();
-        return chatService.getConversationMessages(id, page, size, currentUserId);
+        return chatService.getConversationMessages(id, beforeSentAt, beforeId, size, currentUserId);
     }
 
     /* ------------------------------------------------------- */
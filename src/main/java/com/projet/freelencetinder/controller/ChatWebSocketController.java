@@ -1,9 +1,8 @@
 package com.projet.freelencetinder.controller;
 
+import com.projet.freelencetinder.config.StompPrincipal;
 import com.projet.freelencetinder.dto.ChatMessageResponse;
 import com.projet.freelencetinder.dto.SendMessageRequest;
-import com.projet.freelencetinder.models.Utilisateur;
-import com.projet.freelencetinder.repository.UtilisateurRepository;
 import com.projet.freelencetinder.servcie.ChatMessageService;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -15,12 +14,9 @@ import org.springframework.stereotype.Controller;
 public class ChatWebSocketController {
 
     private final ChatMessageService chatService;
-    private final UtilisateurRepository userRepo;
 
-    public ChatWebSocketController(ChatMessageService chatService,
-                                   UtilisateurRepository userRepo) {
+    public ChatWebSocketController(ChatMessageService chatService) {
         this.chatService = chatService;
-        this.userRepo = userRepo;
     }
 
     @MessageMapping("/chat/send")          // front => /app/chat/send
@@ -28,19 +24,8 @@ public class ChatWebSocketController {
     public ChatMessageResponse handleSend(@Payload SendMessageRequest req,
                                           StompHeaderAccessor accessor) {
 
-        String principalName = accessor.getUser().getName(); // email ou id selon ta config
-        Long senderId;
-
-        try {
-            // Si déjà un ID numérique
-            senderId = Long.valueOf(principalName);
-        } catch (NumberFormatException e) {
-            // Sinon on suppose que c’est un email
-            Utilisateur u = userRepo.findByEmail(principalName)
-                    .orElseThrow(() -> new IllegalStateException("Utilisateur WS introuvable: " + principalName));
-            senderId = u.getId();
-        }
-
-        return chatService.sendMessage(req, senderId);
+        // Id résolu et authentifié au CONNECT (StompAuthChannelInterceptor)
+        StompPrincipal p = (StompPrincipal) accessor.getUser();
+        return chatService.sendMessage(req, p.userId());
     }
 }
@@ -9,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/conversations")
@@ -32,6 +33,13 @@ public class ConversationController extends BaseSecuredController {
         return convService.getUserConversations(currentUserId, page, size);
     }
 
+    /* ------------------------------------------------------- */
+    /* Badge global : total des non-lus (somme des compteurs par conversation). */
+    @GetMapping("/unread")
+    public Map<String, Long> totalUnread() {
+        return Map.of("total", convService.getTotalUnread(getCurrentUserId()));
+    }
+
     /* -------------------------------------------------------
        Création / récupération conversation :
        On envoie missionId + otherUserId.
@@ -1,12 +1,20 @@
 package com.projet.freelencetinder.controller;
 
-import java.util.List;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
+import com.projet.freelencetinder.dto.CompteursDTO;
+import com.projet.freelencetinder.dto.CursorPage;
+import com.projet.freelencetinder.dto.MissionSearchResultDTO;
+import com.projet.freelencetinder.dto.MissionSummaryDTO;
 import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur.Langue;
 import com.projet.freelencetinder.servcie.MissionService;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -36,11 +44,40 @@ public class MissionController {
     }
 
     /* ================================================================
-       2. Liste brute (prototype – à paginer plus tard)
+       2. Liste paginée + filtres
+       GET /api/missions?statut=EN_ATTENTE&categorie=DESIGN_GRAPHIQUE
+                        &budgetMin=100&budgetMax=900
+                        &publieDepuis=2025-01-01&publieJusqua=2025-01-31
+                        &afterId=456&size=20
+       (afterId = nextCursor de la page précédente, absent pour la première page)
        ================================================================ */
     @GetMapping
-    public ResponseEntity<List<Mission>> getAllMissions() {
-        return ResponseEntity.ok(missionService.getAllMissions());
+    public ResponseEntity<CursorPage<MissionSummaryDTO>> getAllMissions(
+            @RequestParam(required = false) Mission.Statut statut,
+            @RequestParam(required = false) Mission.Categorie categorie,
+            @RequestParam(required = false) BigDecimal budgetMin,
+            @RequestParam(required = false) BigDecimal budgetMax,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publieDepuis,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publieJusqua,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(missionService.getMissionsPage(
+                statut, categorie, budgetMin, budgetMax, publieDepuis, publieJusqua, afterId, size));
+    }
+
+    /* ================================================================
+       2 bis. Recherche plein texte (titre + description)
+       GET /api/missions/search?q=application mobile&langue=FR&page=0&size=20
+       ================================================================ */
+    @GetMapping("/search")
+    public ResponseEntity<Page<MissionSearchResultDTO>> searchMissions(
+            @RequestParam String q,
+            @RequestParam(required = false) Langue langue,
+            @RequestParam(required = false) Mission.Statut statut,
+            @RequestParam(required = false) Mission.Categorie categorie,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(missionService.searchMissions(q, langue, statut, categorie, page, size));
     }
 
     /* ================================================================
@@ -51,6 +88,12 @@ public class MissionController {
         return ResponseEntity.ok(missionService.getMissionById(id));
     }
 
+    /* Compteurs à jour (la mission ci-dessus porte les valeurs en base) */
+    @GetMapping("/{id}/counters")
+    public ResponseEntity<CompteursDTO> getCompteurs(@PathVariable Long id) {
+        return ResponseEntity.ok(missionService.getCompteurs(id));
+    }
+
     /* ================================================================
        4. Mise à jour mission (statut EN_ATTENTE)
        ================================================================ */
@@ -73,10 +116,12 @@ public class MissionController {
        6. Missions d’un client
        ================================================================ */
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<java.util.List<com.projet.freelencetinder.dto.MissionCardDto>> getMissionsByClient(@PathVariable Long clientId) {
-        java.util.List<Mission> missions = missionService.getMissionsByClient(clientId);
-        java.util.List<com.projet.freelencetinder.dto.MissionCardDto> dtos = missions.stream().map(this::toCardDto).toList();
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<Page<com.projet.freelencetinder.dto.MissionCardDto>> getMissionsByClient(
+            @PathVariable Long clientId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<Mission> missions = missionService.getMissionsByClient(clientId, page, size);
+        return ResponseEntity.ok(missions.map(this::toCardDto));
     }
 
     private com.projet.freelencetinder.dto.MissionCardDto toCardDto(Mission m) {
@@ -102,8 +147,12 @@ public class MissionController {
        7. Missions où un freelance est sélectionné
        ================================================================ */
     @GetMapping("/freelance/{freelanceId}")
-    public ResponseEntity<List<Mission>> getMissionsByFreelance(@PathVariable Long freelanceId) {
-        return ResponseEntity.ok(missionService.getMissionsByFreelance(freelanceId));
+    public ResponseEntity<Page<com.projet.freelencetinder.dto.MissionCardDto>> getMissionsByFreelance(
+            @PathVariable Long freelanceId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<Mission> missions = missionService.getMissionsByFreelance(freelanceId, page, size);
+        return ResponseEntity.ok(missions.map(this::toCardDto));
     }
 
     /* ================================================================
@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.persistence.EntityNotFoundException;
 
+import com.projet.freelencetinder.dto.CursorPage;
+import com.projet.freelencetinder.dto.FreelanceRecommendationDTO;
 import com.projet.freelencetinder.dto.MissionRecommendationDTO;
 import com.projet.freelencetinder.dto.MissionSummaryDTO;
 import com.projet.freelencetinder.dto.FreelanceSummaryDTO;
@@ -35,18 +37,21 @@ public class SwipeController {
 
     /* ================================================================
        1. Missions disponibles pour un freelance (carte swipe)
-       GET /api/swipes/available?freelanceId=1&categorie=DEVELOPPEMENT_WEB
+       GET /api/swipes/available?freelanceId=1&categorie=DEVELOPPEMENT_WEB&size=20
+       Page suivante : &afterId=<id de la dernière carte reçue>
        ================================================================ */
     @GetMapping("/available")
     public ResponseEntity<List<MissionSummaryDTO>> getMissionsForSwipe(
             @RequestParam Long freelanceId,
-            @RequestParam(required = false) Categorie categorie) {
+            @RequestParam(required = false) Categorie categorie,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "20") int size) {
 
         if (freelanceId == null)
             throw new IllegalArgumentException("freelanceId obligatoire");
 
         return ResponseEntity.ok(
-                swipeService.getMissionsForSwipe(freelanceId, categorie)
+                swipeService.getMissionsForSwipe(freelanceId, categorie, afterId, size)
         );
     }
 
@@ -194,20 +199,37 @@ public class SwipeController {
  
  
  /**
-  * Explorer les freelances compatibles avec une mission (matching compétences).
-  * GET /api/swipes/mission/{missionId}/explore?clientId=123
+  * Explorer les freelances compatibles avec une mission (match par catégorie), page par page.
+  * GET /api/swipes/mission/{missionId}/explore?clientId=123&afterId=456&size=20
+  * (afterId = nextCursor de la page précédente, absent pour la première page)
   */
  @GetMapping("/mission/{missionId}/explore")
- public ResponseEntity<List<FreelanceSummaryDTO>> exploreFreelancers(
+ public ResponseEntity<CursorPage<FreelanceSummaryDTO>> exploreFreelancers(
          @PathVariable Long missionId,
-         @RequestParam Long clientId) {
+         @RequestParam Long clientId,
+         @RequestParam(required = false) Long afterId,
+         @RequestParam(defaultValue = "20") int size) {
 
      if (clientId == null) {
          throw new IllegalArgumentException("clientId est requis");
      }
-     List<FreelanceSummaryDTO> result =
-         swipeService.getFreelancersMatchingMission(clientId, missionId);
+     CursorPage<FreelanceSummaryDTO> result =
+         swipeService.getFreelancersMatchingMission(clientId, missionId, afterId, size);
      return ResponseEntity.ok(result);
  }
 
+ /**
+  * Meilleurs freelances pour une mission, triés par score (compétences, note,
+  * tarif vs budget, disponibilité, activité récente).
+  * GET /api/swipes/mission/{missionId}/recommandations?clientId=123&limit=20
+  */
+ @GetMapping("/mission/{missionId}/recommandations")
+ public ResponseEntity<List<FreelanceRecommendationDTO>> getFreelancesRecommandes(
+         @PathVariable Long missionId,
+         @RequestParam Long clientId,
+         @RequestParam(defaultValue = "20") int limit) {
+
+     return ResponseEntity.ok(swipeService.getFreelancesRecommandes(clientId, missionId, limit));
+ }
+
 }
@@ -4,11 +4,14 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.*;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import com.projet.freelencetinder.dto.CompteursDTO;
+import com.projet.freelencetinder.dto.UtilisateurSummaryDTO;
 import com.projet.freelencetinder.models.Mission;
 import com.projet.freelencetinder.models.Utilisateur;
 import com.projet.freelencetinder.models.Utilisateur.Disponibilite;
@@ -16,6 +19,7 @@ import com.projet.freelencetinder.models.Utilisateur.Langue;
 import com.projet.freelencetinder.models.Utilisateur.NiveauExperience;
 import com.projet.freelencetinder.models.Utilisateur.TypeUtilisateur;
 import com.projet.freelencetinder.models.Mission.Categorie;
+import com.projet.freelencetinder.repository.UtilisateurSpecifications;
 import com.projet.freelencetinder.servcie.UtilisateurService;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -47,11 +51,11 @@ public class UtilisateurController {
     }
 
     /* ================================================================
-       2. Listing + filtres simples en mémoire
-          (À optimiser plus tard en requêtes JPA + pagination)
+       2. Listing paginé + filtres (traduits en SQL)
+       GET /api/utilisateurs?type=FREELANCE&competences=java,sql&page=0&size=20
        ================================================================ */
     @GetMapping
-    public ResponseEntity<List<Utilisateur>> getAllUtilisateurs(
+    public ResponseEntity<Page<UtilisateurSummaryDTO>> getAllUtilisateurs(
             @RequestParam(required = false) TypeUtilisateur type,
             @RequestParam(required = false) String localisation,
             @RequestParam(required = false) String competences,   // CSV
@@ -62,42 +66,24 @@ public class UtilisateurController {
             @RequestParam(required = false) Disponibilite dispo,
             @RequestParam(required = false) NiveauExperience niveau,
             @RequestParam(required = false) Langue langue,
-            @RequestParam(required = false) List<Categorie> categories
+            @RequestParam(required = false) List<Categorie> categories,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
     ) {
 
-        List<Utilisateur> liste = utilisateurService.getAllUtilisateurs();
-
         List<String> skillsFilter = (competences == null || competences.isBlank())
                 ? Collections.emptyList()
                 : Arrays.stream(competences.split(","))
                         .map(String::trim)
                         .filter(s -> !s.isEmpty())
+                        .distinct()
                         .collect(Collectors.toList());
 
-        List<Utilisateur> filtered = liste.stream()
-            .filter(u -> type == null || u.getTypeUtilisateur() == type)
-            .filter(u -> localisation == null ||
-                    (u.getLocalisation() != null &&
-                     u.getLocalisation().toLowerCase().contains(localisation.toLowerCase())))
-            .filter(u -> skillsFilter.isEmpty()
-                    || (u.getCompetences() != null && u.getCompetences().containsAll(skillsFilter)))
-            .filter(u -> categories == null || categories.isEmpty() ||
-                    (u.getCategories() != null &&
-                        u.getCategories().stream().anyMatch(categories::contains)))
-            .filter(u -> tarifMin == null ||
-                    (u.getTarifHoraire() != null && u.getTarifHoraire() >= tarifMin))
-            .filter(u -> tarifMax == null ||
-                    (u.getTarifHoraire() != null && u.getTarifHoraire() <= tarifMax))
-            .filter(u -> tarifJourMin == null ||
-                    (u.getTarifJournalier() != null && u.getTarifJournalier() >= tarifJourMin))
-            .filter(u -> tarifJourMax == null ||
-                    (u.getTarifJournalier() != null && u.getTarifJournalier() <= tarifJourMax))
-            .filter(u -> dispo  == null || u.getDisponibilite()    == dispo)
-            .filter(u -> niveau == null || u.getNiveauExperience() == niveau)
-            .filter(u -> langue == null || u.getLanguePref()       == langue)
-            .collect(Collectors.toList());
-
-        return ResponseEntity.ok(filtered);
+        UtilisateurSpecifications.Filtre filtre = new UtilisateurSpecifications.Filtre(
+                type, localisation, skillsFilter, tarifMin, tarifMax, tarifJourMin, tarifJourMax,
+                dispo, niveau, langue, categories);
+
+        return ResponseEntity.ok(utilisateurService.rechercher(filtre, page, size));
     }
 
     /* ================================================================
@@ -187,6 +173,12 @@ public class UtilisateurController {
     /* ================================================================
        10. Incrément direct des compteurs (optionnel – usage interne)
        ================================================================ */
+    /* Compteurs à jour (l’utilisateur renvoyé par GET /{id} porte les valeurs en base) */
+    @GetMapping("/{id}/counters")
+    public ResponseEntity<CompteursDTO> getCompteurs(@PathVariable Long id) {
+        return ResponseEntity.ok(utilisateurService.getCompteurs(id));
+    }
+
     @PostMapping("/{id}/counters/swipe")
     public ResponseEntity<Void> incSwipe(@PathVariable Long id) {
         utilisateurService.incrementSwipe(id);
@@ -0,0 +1,36 @@
+package com.projet.freelencetinder.dto;
+
+import java.util.List;
+
+/**
+ * Accusé durable poussé sur /user/queue/persisted en mode pipeline :
+ * les messages listés sont en base et viennent d’être diffusés (PERSISTE) ou sont
+ * définitivement perdus (ECHEC, jamais diffusés). Toujours adressé à l’expéditeur seul.
+ */
+public class ChatAckDto {
+
+    public static final String PERSISTE = "PERSISTE";
+    public static final String ECHEC    = "ECHEC";
+
+    private Long conversationId;
+    private List<Long> messageIds;
+    private String statut;
+
+    public ChatAckDto() {}
+
+    public ChatAckDto(Long conversationId, List<Long> messageIds, String statut) {
+        this.conversationId = conversationId;
+        this.messageIds = messageIds;
+        this.statut = statut;
+    }
+
+    /* ===== Getters / Setters ===== */
+    public Long getConversationId() { return conversationId; }
+    public void setConversationId(Long conversationId) { this.conversationId = conversationId; }
+
+    public List<Long> getMessageIds() { return messageIds; }
+    public void setMessageIds(List<Long> messageIds) { this.messageIds = messageIds; }
+
+    public String getStatut() { return statut; }
+    public void setStatut(String statut) { this.statut = statut; }
+}
@@ -0,0 +1,43 @@
+package com.projet.freelencetinder.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compteurs à jour d’une mission (swipesRecus, likesRecus) ou d’un utilisateur
+ * (nombreSwipes, likesRecus, matchesObtenus, dernierSwipeAt) : valeurs en base
+ * + incréments pas encore écrits (CounterService). Les champs de l’autre type restent null.
+ */
+public class CompteursDTO {
+
+    private Long id;
+
+    /* Mission */
+    private Integer swipesRecus;
+
+    /* Mission et utilisateur */
+    private Integer likesRecus;
+
+    /* Utilisateur */
+    private Integer nombreSwipes;
+    private Integer matchesObtenus;
+    private LocalDateTime dernierSwipeAt;
+
+    /* ===== Getters / Setters ===== */
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Integer getSwipesRecus() { return swipesRecus; }
+    public void setSwipesRecus(Integer swipesRecus) { this.swipesRecus = swipesRecus; }
+
+    public Integer getLikesRecus() { return likesRecus; }
+    public void setLikesRecus(Integer likesRecus) { this.likesRecus = likesRecus; }
+
+    public Integer getNombreSwipes() { return nombreSwipes; }
+    public void setNombreSwipes(Integer nombreSwipes) { this.nombreSwipes = nombreSwipes; }
+
+    public Integer getMatchesObtenus() { return matchesObtenus; }
+    public void setMatchesObtenus(Integer matchesObtenus) { this.matchesObtenus = matchesObtenus; }
+
+    public LocalDateTime getDernierSwipeAt() { return dernierSwipeAt; }
+    public void setDernierSwipeAt(LocalDateTime dernierSwipeAt) { this.dernierSwipeAt = dernierSwipeAt; }
+}
@@ -0,0 +1,49 @@
+package com.projet.freelencetinder.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page d’une liste parcourue par curseur (keyset) : le client renvoie
+ * {@code nextCursor} comme {@code afterId} pour obtenir la page suivante.
+ */
+public class CursorPage<T> {
+
+    private List<T> items;
+    private Long nextCursor;
+    private boolean hasNext;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> items, Long nextCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Construit la page à partir de {@code size + 1} lignes lues :
+     * la ligne en trop indique seulement qu’il existe une page suivante.
+     */
+    public static <T> CursorPage<T> of(List<T> lignes, int size, Function<? super T, Long> curseur) {
+        boolean suivante = lignes.size() > size;
+        List<T> items = suivante ? lignes.subList(0, size) : lignes;
+        Long next = items.isEmpty() ? null : curseur.apply(items.get(items.size() - 1));
+        return new CursorPage<>(items, next, suivante);
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = items.stream().<R>map(mapper).toList();
+        return new CursorPage<>(mapped, nextCursor, hasNext);
+    }
+
+    /* ===== Getters / Setters ===== */
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public Long getNextCursor() { return nextCursor; }
+    public void setNextCursor(Long nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+}
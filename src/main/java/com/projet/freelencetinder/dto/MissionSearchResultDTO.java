@@ -0,0 +1,49 @@
+package com.projet.freelencetinder.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.projet.freelencetinder.models.Mission.Categorie;
+import com.projet.freelencetinder.models.Mission.Statut;
+
+/**
+ * Résultat de recherche plein texte (GET /api/missions/search), trié par pertinence.
+ */
+public class MissionSearchResultDTO {
+
+    private Long id;
+    private String titre;
+    private BigDecimal budget;
+    private String devise;
+    private Categorie categorie;
+    private Statut statut;
+    private LocalDateTime datePublication;
+    private double rang;             // ts_rank_cd (plus grand = plus pertinent)
+
+    public MissionSearchResultDTO() {}
+
+    /* ===== Getters / Setters ===== */
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitre() { return titre; }
+    public void setTitre(String titre) { this.titre = titre; }
+
+    public BigDecimal getBudget() { return budget; }
+    public void setBudget(BigDecimal budget) { this.budget = budget; }
+
+    public String getDevise() { return devise; }
+    public void setDevise(String devise) { this.devise = devise; }
+
+    public Categorie getCategorie() { return categorie; }
+    public void setCategorie(Categorie categorie) { this.categorie = categorie; }
+
+    public Statut getStatut() { return statut; }
+    public void setStatut(Statut statut) { this.statut = statut; }
+
+    public LocalDateTime getDatePublication() { return datePublication; }
+    public void setDatePublication(LocalDateTime datePublication) { this.datePublication = datePublication; }
+
+    public double getRang() { return rang; }
+    public void setRang(double rang) { this.rang = rang; }
+}
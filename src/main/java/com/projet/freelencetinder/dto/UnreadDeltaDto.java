@@ -0,0 +1,26 @@
+package com.projet.freelencetinder.dto;
+
+/**
+ * Variation du compteur de non-lus poussée sur /user/queue/unread :
+ * +1 à la réception d’un message, -n quand la conversation est marquée lue.
+ * Le total de référence reste GET /api/conversations/unread.
+ */
+public class UnreadDeltaDto {
+
+    private Long conversationId;
+    private int delta;
+
+    public UnreadDeltaDto() {}
+
+    public UnreadDeltaDto(Long conversationId, int delta) {
+        this.conversationId = conversationId;
+        this.delta = delta;
+    }
+
+    /* ===== Getters / Setters ===== */
+    public Long getConversationId() { return conversationId; }
+    public void setConversationId(Long conversationId) { this.conversationId = conversationId; }
+
+    public int getDelta() { return delta; }
+    public void setDelta(int delta) { this.delta = delta; }
+}
@@ -0,0 +1,84 @@
+package com.projet.freelencetinder.dto;
+
+import java.util.Set;
+
+import com.projet.freelencetinder.models.Mission.Categorie;
+import com.projet.freelencetinder.models.Utilisateur.Disponibilite;
+import com.projet.freelencetinder.models.Utilisateur.Langue;
+import com.projet.freelencetinder.models.Utilisateur.NiveauExperience;
+import com.projet.freelencetinder.models.Utilisateur.TypeUtilisateur;
+
+/**
+ * Résumé d’un utilisateur pour les listes de recherche (GET /api/utilisateurs).
+ * Pas de mot de passe, tokens, historique ni compteurs internes.
+ */
+public class UtilisateurSummaryDTO {
+
+    private Long id;
+    private String nom;
+    private String prenom;
+    private String email;
+    private TypeUtilisateur typeUtilisateur;
+    private String photoProfilUrl;
+    private String localisation;
+    private Langue languePref;
+    private boolean estActif;
+
+    /* Freelance */
+    private Double tarifHoraire;
+    private Double tarifJournalier;
+    private Disponibilite disponibilite;
+    private NiveauExperience niveauExperience;
+    private Double noteMoyenne;
+    private Set<String> competences;
+    private Set<Categorie> categories;
+
+    /* ===== Getters / Setters ===== */
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getNom() { return nom; }
+    public void setNom(String nom) { this.nom = nom; }
+
+    public String getPrenom() { return prenom; }
+    public void setPrenom(String prenom) { this.prenom = prenom; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public TypeUtilisateur getTypeUtilisateur() { return typeUtilisateur; }
+    public void setTypeUtilisateur(TypeUtilisateur typeUtilisateur) { this.typeUtilisateur = typeUtilisateur; }
+
+    public String getPhotoProfilUrl() { return photoProfilUrl; }
+    public void setPhotoProfilUrl(String photoProfilUrl) { this.photoProfilUrl = photoProfilUrl; }
+
+    public String getLocalisation() { return localisation; }
+    public void setLocalisation(String localisation) { this.localisation = localisation; }
+
+    public Langue getLanguePref() { return languePref; }
+    public void setLanguePref(Langue languePref) { this.languePref = languePref; }
+
+    public boolean isEstActif() { return estActif; }
+    public void setEstActif(boolean estActif) { this.estActif = estActif; }
+
+    public Double getTarifHoraire() { return tarifHoraire; }
+    public void setTarifHoraire(Double tarifHoraire) { this.tarifHoraire = tarifHoraire; }
+
+    public Double getTarifJournalier() { return tarifJournalier; }
+    public void setTarifJournalier(Double tarifJournalier) { this.tarifJournalier = tarifJournalier; }
+
+    public Disponibilite getDisponibilite() { return disponibilite; }
+    public void setDisponibilite(Disponibilite disponibilite) { this.disponibilite = disponibilite; }
+
+    public NiveauExperience getNiveauExperience() { return niveauExperience; }
+    public void setNiveauExperience(NiveauExperience niveauExperience) { this.niveauExperience = niveauExperience; }
+
+    public Double getNoteMoyenne() { return noteMoyenne; }
+    public void setNoteMoyenne(Double noteMoyenne) { this.noteMoyenne = noteMoyenne; }
+
+    public Set<String> getCompetences() { return competences; }
+    public void setCompetences(Set<String> competences) { this.competences = competences; }
+
+    public Set<Categorie> getCategories() { return categories; }
+    public void setCategories(Set<Categorie> categories) { this.categories = categories; }
+}
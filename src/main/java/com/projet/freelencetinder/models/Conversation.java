@@ -53,6 +53,16 @@ public class Conversation {
     @Column(length = 20)
     private ChatMessage.MessageType lastMessageType;
 
+    /* Compteurs de non-lus par participant.
+       Jamais écrits par le flush de l’entité : uniquement par les UPDATE atomiques
+       de ConversationRepository (pas d’écrasement par une version périmée).
+       Conversations antérieures aux colonnes : voir ConversationUnreadBackfill. */
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "integer default 0")
+    private int unreadForClient;
+
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "integer default 0")
+    private int unreadForFreelance;
+
     /* Constructeurs */
     public Conversation() {}
 
@@ -88,4 +98,7 @@ public class Conversation {
 
     public ChatMessage.MessageType getLastMessageType() { return lastMessageType; }
     public void setLastMessageType(ChatMessage.MessageType lastMessageType) { this.lastMessageType = lastMessageType; }
+
+    public int getUnreadForClient() { return unreadForClient; }
+    public int getUnreadForFreelance() { return unreadForFreelance; }
 }
@@ -18,7 +18,9 @@ import jakarta.validation.constraints.*;
     indexes = {
         @Index(name = "idx_mission_statut", columnList = "statut"),
         @Index(name = "idx_mission_cat_statut", columnList = "categorie, statut"),
-        @Index(name = "idx_mission_date_pub", columnList = "datePublication")
+        @Index(name = "idx_mission_date_pub", columnList = "datePublication"),
+        @Index(name = "idx_mission_client", columnList = "client_id, id"),
+        @Index(name = "idx_mission_freelance_sel", columnList = "freelance_selectionne_id, id")
     }
 )
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
@@ -114,10 +116,12 @@ public class Mission {
     private String videoBriefUrl;
 
     /* ===================== Match & Swipes ===================== */
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    /* Compteurs écrits uniquement par CounterService (UPDATE atomique, jamais au flush de l’entité) ;
+       valeurs en base, sans les incréments en attente (voir GET /api/missions/{id}/counters) */
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private Integer swipesRecus = 0;
 
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private Integer likesRecus = 0;
 
     @Column(nullable = false, columnDefinition = "boolean default false")
@@ -149,16 +153,6 @@ public class Mission {
                LocalDate.now().isAfter(dateLimiteCandidature);
     }
 
-    public void incrementSwipe() {
-        if (swipesRecus == null) swipesRecus = 0;
-        swipesRecus++;
-    }
-
-    public void incrementLike() {
-        if (likesRecus == null) likesRecus = 0;
-        likesRecus++;
-    }
-
     public void affecterFreelance(Utilisateur f) {
         this.freelanceSelectionne = f;
         this.dateAffectation = LocalDateTime.now();
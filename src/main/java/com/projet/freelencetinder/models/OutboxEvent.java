@@ -0,0 +1,72 @@
+package com.projet.freelencetinder.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Push temps réel en attente d’envoi au broker STOMP (outbox transactionnelle).
+ * Écrit dans la transaction métier, supprimé par le relais une fois envoyé.
+ */
+@Entity
+@Table(
+    name = "outbox_event",
+    indexes = @Index(name = "idx_outbox_shard_id", columnList = "shard,id")
+)
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Partition d’envoi (hash du destinataire) : un seul nœud relaie une partition à la fois. */
+    @Column(nullable = false)
+    private int shard;
+
+    /** Email du destinataire (/user/**) ; null pour une diffusion sur un topic. */
+    @Column(length = 255)
+    private String recipient;
+
+    @Column(nullable = false, length = 255)
+    private String destination;
+
+    /** Payload déjà sérialisé en JSON. */
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /* Constructeurs */
+    public OutboxEvent() {}
+
+    public OutboxEvent(int shard, String recipient, String destination, String payload) {
+        this.shard = shard;
+        this.recipient = recipient;
+        this.destination = destination;
+        this.payload = payload;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /* ===================== Getters / Setters ===================== */
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public int getShard() { return shard; }
+    public void setShard(int shard) { this.shard = shard; }
+
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+
+    public String getDestination() { return destination; }
+    public void setDestination(String destination) { this.destination = destination; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -93,7 +93,8 @@ public class Utilisateur {
     @ElementCollection(targetClass = Mission.Categorie.class)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "utilisateur_categories",
-                     joinColumns = @JoinColumn(name = "utilisateur_id"))
+                     joinColumns = @JoinColumn(name = "utilisateur_id"),
+                     indexes = @Index(name = "idx_user_cat_categorie", columnList = "categorie, utilisateur_id"))
     @Column(name = "categorie", nullable = false, length = 40)
     private Set<Mission.Categorie> categories = new HashSet<>();
 
@@ -130,12 +131,15 @@ public class Utilisateur {
     @Column(precision = 14, scale = 2) private BigDecimal soldeEscrow;
 
     /* ===================== Swiping & Gamification ===================== */
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    /* Compteurs écrits uniquement par CounterService (UPDATE atomique, jamais au flush de l’entité) ;
+       valeurs en base, sans les incréments en attente (voir GET /api/utilisateurs/{id}/counters) */
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private Integer nombreSwipes = 0;
+    @Column(updatable = false)
     private LocalDateTime dernierSwipeAt;
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private Integer likesRecus = 0;
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private Integer matchesObtenus = 0;
 
     /* ===================== Push notifications ===================== */
@@ -176,19 +180,6 @@ public class Utilisateur {
     protected void onUpdate() { this.derniereMiseAJour = LocalDateTime.now(); }
 
     /* ===================== Méthodes utilitaires ===================== */
-    public void incrementNombreSwipes()   {
-        if (nombreSwipes == null) nombreSwipes = 0;
-        nombreSwipes++;
-        this.dernierSwipeAt = LocalDateTime.now();
-    }
-    public void incrementLikesRecus() {
-        if (likesRecus == null) likesRecus = 0;
-        likesRecus++;
-    }
-    public void incrementMatchesObtenus() {
-        if (matchesObtenus == null) matchesObtenus = 0;
-        matchesObtenus++;
-    }
     public String getNomComplet() {
         return (nom != null ? nom : "") + " " + (prenom != null ? prenom : "");
     }
@@ -1,16 +1,40 @@
 package com.projet.freelencetinder.repository;
 
 import com.projet.freelencetinder.models.ChatMessage;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 
 import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
 import org.springframework.data.repository.query.Param;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
 
-    Page<ChatMessage> findByConversationIdOrderBySentAtDesc(Long conversationId, Pageable pageable);
+    /* =============================================================
+       HISTORIQUE PAR CURSEUR (sentAt, id) – idx_msg_conv_sent, sans COUNT
+       Slice : lit size + 1 lignes pour savoir s’il reste des messages.
+       ============================================================= */
+    @Query("""
+        SELECT m FROM ChatMessage m
+        WHERE m.conversation.id = :convId
+        ORDER BY m.sentAt DESC, m.id DESC
+    """)
+    Slice<ChatMessage> findLatest(@Param("convId") Long conversationId, Pageable pageable);
+
+    /* sentAt <= :sentAt borne le parcours d’index ; id départage les messages de même instant. */
+    @Query("""
+        SELECT m FROM ChatMessage m
+        WHERE m.conversation.id = :convId
+          AND m.sentAt <= :sentAt
+          AND (m.sentAt < :sentAt OR m.id < :id)
+        ORDER BY m.sentAt DESC, m.id DESC
+    """)
+    Slice<ChatMessage> findBefore(@Param("convId") Long conversationId,
+                                  @Param("sentAt") LocalDateTime beforeSentAt,
+                                  @Param("id") Long beforeId,
+                                  Pageable pageable);
 
     long countByConversationIdAndReceiverIdAndSeenFalse(Long conversationId, Long receiverId);
 
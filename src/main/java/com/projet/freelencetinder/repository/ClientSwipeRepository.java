@@ -1,10 +1,13 @@
 // ClientSwipeRepository.java
 package com.projet.freelencetinder.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.projet.freelencetinder.models.ClientSwipe;
 
@@ -12,6 +15,19 @@ public interface ClientSwipeRepository extends JpaRepository<ClientSwipe, Long>
 
     Optional<ClientSwipe> findByClientIdAndMissionIdAndFreelanceId(
             Long clientId, Long missionId, Long freelanceId);
+
+    /* Insertion d’abord (uk_client_swipe_triplet) : vide si le triplet existe déjà. */
+    @Query(value = """
+        INSERT INTO client_swipe (client_id, mission_id, freelance_id, decision, date_swipe, a_genere_match, version)
+        VALUES (:clientId, :missionId, :freelanceId, :decision, :at, false, 0)
+        ON CONFLICT (client_id, mission_id, freelance_id) DO NOTHING
+        RETURNING *
+        """, nativeQuery = true)
+    Optional<ClientSwipe> insertSiAbsent(@Param("clientId") Long clientId,
+                                         @Param("missionId") Long missionId,
+                                         @Param("freelanceId") Long freelanceId,
+                                         @Param("decision") String decision,
+                                         @Param("at") LocalDateTime at);
     
     List<ClientSwipe> findByClientIdAndMissionId(Long clientId, Long missionId);
 
@@ -1,11 +1,16 @@
 package com.projet.freelencetinder.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import com.projet.freelencetinder.models.ChatMessage;
 import com.projet.freelencetinder.models.Conversation;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ConversationRepository extends JpaRepository<Conversation, Long> {
 
@@ -16,4 +21,76 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     List<Conversation> findByClientIdOrFreelanceIdOrderByLastMessageAtDesc(Long clientId,
                                                                            Long freelanceId,
                                                                            Pageable pageable);
+
+    /* Boîte de réception : mission et participants chargés dans la même requête (pas de N+1). */
+    @Query("""
+        SELECT c FROM Conversation c
+        JOIN FETCH c.mission
+        JOIN FETCH c.client
+        JOIN FETCH c.freelance
+        WHERE c.client.id = :userId OR c.freelance.id = :userId
+        ORDER BY c.lastMessageAt DESC
+    """)
+    List<Conversation> findInbox(@Param("userId") Long userId, Pageable pageable);
+
+    /* Participants (ids + emails) pour l’autorisation du chat, sans charger les entités. */
+    @Query("""
+        SELECT c.client.id AS clientId, c.freelance.id AS freelanceId,
+               c.client.email AS clientEmail, c.freelance.email AS freelanceEmail
+        FROM Conversation c
+        WHERE c.id = :id
+    """)
+    Optional<ParticipantsLigne> findParticipantsById(@Param("id") Long conversationId);
+
+    interface ParticipantsLigne {
+        Long getClientId();
+        Long getFreelanceId();
+        String getClientEmail();
+        String getFreelanceEmail();
+    }
+
+    /* =============================================================
+       SNAPSHOT & COMPTEURS DE NON-LUS (UPDATE atomiques, pas de lecture préalable)
+       ============================================================= */
+    /* Dernier message + non-lus du destinataire ; version incrémentée comme le ferait JPA. */
+    @Modifying
+    @Query("""
+        UPDATE Conversation c
+        SET c.lastMessageAt = :at,
+            c.lastMessageType = :type,
+            c.lastMessageContent = :content,
+            c.unreadForClient = c.unreadForClient + :pourClient,
+            c.unreadForFreelance = c.unreadForFreelance + :pourFreelance,
+            c.version = c.version + 1
+        WHERE c.id = :id
+    """)
+    int updateSnapshot(@Param("id") Long conversationId,
+                       @Param("at") LocalDateTime at,
+                       @Param("type") ChatMessage.MessageType type,
+                       @Param("content") String content,
+                       @Param("pourClient") int pourClient,
+                       @Param("pourFreelance") int pourFreelance);
+
+    /* Remise à zéro du compteur d’un participant, valeur précédente renvoyée par la même
+       instruction : la ligne est verrouillée par la sous-requête, un incrément concurrent
+       passe avant (il est compté dans le delta) ou après (il reste non lu). */
+    @Query(value = """
+        UPDATE conversation c
+        SET unread_for_client    = CASE WHEN :client THEN 0 ELSE c.unread_for_client END,
+            unread_for_freelance = CASE WHEN :client THEN c.unread_for_freelance ELSE 0 END
+        FROM (SELECT id, unread_for_client, unread_for_freelance
+              FROM conversation WHERE id = :id FOR UPDATE) ancien
+        WHERE c.id = ancien.id
+        RETURNING CASE WHEN :client THEN ancien.unread_for_client ELSE ancien.unread_for_freelance END
+        """, nativeQuery = true)
+    Optional<Integer> resetUnread(@Param("id") Long conversationId, @Param("client") boolean client);
+
+    /* Badge global : somme des compteurs de l’utilisateur (idx_conv_client / idx_conv_freelance). */
+    @Query("""
+        SELECT COALESCE(SUM(CASE WHEN c.client.id = :userId
+                                 THEN c.unreadForClient ELSE c.unreadForFreelance END), 0)
+        FROM Conversation c
+        WHERE c.client.id = :userId OR c.freelance.id = :userId
+    """)
+    long sumUnread(@Param("userId") Long userId);
 }
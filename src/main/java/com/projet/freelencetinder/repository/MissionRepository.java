@@ -1,21 +1,266 @@
 // MissionRepository.java
 package com.projet.freelencetinder.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.projet.freelencetinder.models.Mission;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface MissionRepository extends JpaRepository<Mission, Long> {
     // CRUD de base fourni par JpaRepository
 	
 	/* Méthodes custom ajoutables dans MissionRepository */
 	List<Mission> findByClientId(Long clientId);
+
+	/* Tableau de bord client : freelance sélectionné chargé dans la même requête
+	   (seul lien lu par MissionController.toCardDto) ; s’appuie sur idx_mission_client. */
+	@EntityGraph(attributePaths = "freelanceSelectionne")
+	Page<Mission> findByClientId(Long clientId, Pageable pageable);
+
+	/* Missions d’un freelance sélectionné, rendues en cartes comme celles du client
+	   (freelance chargé dans la même requête) ; s’appuie sur idx_mission_freelance_sel. */
+	@EntityGraph(attributePaths = "freelanceSelectionne")
+	Page<Mission> findByFreelanceSelectionneId(Long freelanceId, Pageable pageable);
 	
 	
 	List<Mission> findByStatutAndFreelanceSelectionneIsNotNull(Mission.Statut statut);
 
+	/* ---------- Deck swipe freelance (keyset sur id décroissant) ----------
+	   Missions ouvertes, non verrouillées, non expirées et jamais swipées par
+	   le freelance. Le curseur afterId est l’id de la dernière carte reçue
+	   (Long.MAX_VALUE pour la première page) ; Pageable ne sert qu’à la limite. */
+	@Query("""
+	    SELECT m FROM Mission m
+	    JOIN FETCH m.client
+	    WHERE m.statut = :statut
+	      AND m.verrouillee = false
+	      AND (m.dateLimiteCandidature IS NULL OR m.dateLimiteCandidature >= :today)
+	      AND m.id < :afterId
+	      AND NOT EXISTS (
+	          SELECT s.id FROM Swipe s
+	          WHERE s.mission = m AND s.freelance.id = :freelanceId)
+	    ORDER BY m.id DESC
+	""")
+	List<Mission> findSwipeCandidates(@Param("freelanceId") Long freelanceId,
+	                                  @Param("statut") Mission.Statut statut,
+	                                  @Param("today") LocalDate today,
+	                                  @Param("afterId") Long afterId,
+	                                  Pageable pageable);
+
+	/* Même requête filtrée par catégorie : s’appuie sur idx_mission_cat_statut. */
+	@Query("""
+	    SELECT m FROM Mission m
+	    JOIN FETCH m.client
+	    WHERE m.categorie = :categorie
+	      AND m.statut = :statut
+	      AND m.verrouillee = false
+	      AND (m.dateLimiteCandidature IS NULL OR m.dateLimiteCandidature >= :today)
+	      AND m.id < :afterId
+	      AND NOT EXISTS (
+	          SELECT s.id FROM Swipe s
+	          WHERE s.mission = m AND s.freelance.id = :freelanceId)
+	    ORDER BY m.id DESC
+	""")
+	List<Mission> findSwipeCandidatesByCategorie(@Param("freelanceId") Long freelanceId,
+	                                             @Param("categorie") Mission.Categorie categorie,
+	                                             @Param("statut") Mission.Statut statut,
+	                                             @Param("today") LocalDate today,
+	                                             @Param("afterId") Long afterId,
+	                                             Pageable pageable);
+
+	/* Identifiants seuls, pour (re)construire le deck en mémoire d’un freelance. */
+	@Query("""
+	    SELECT m.id FROM Mission m
+	    WHERE m.statut = :statut
+	      AND m.verrouillee = false
+	      AND (m.dateLimiteCandidature IS NULL OR m.dateLimiteCandidature >= :today)
+	      AND NOT EXISTS (
+	          SELECT s.id FROM Swipe s
+	          WHERE s.mission = m AND s.freelance.id = :freelanceId)
+	    ORDER BY m.id DESC
+	""")
+	List<Long> findSwipeCandidateIds(@Param("freelanceId") Long freelanceId,
+	                                 @Param("statut") Mission.Statut statut,
+	                                 @Param("today") LocalDate today,
+	                                 Pageable pageable);
+
+	@Query("SELECT m FROM Mission m JOIN FETCH m.client WHERE m.id IN :ids")
+	List<Mission> findAllWithClientByIdIn(@Param("ids") Collection<Long> ids);
+
+	/* ---------- Recommandations freelance (curseur base, une ligne légère par mission) ----------
+	   Le nombre de compétences communes est calculé en SQL : aucune entité ni
+	   collection n’est chargée pendant le parcours. À consommer dans une
+	   transaction et à fermer (try-with-resources).
+	   Compétences comptées comme dans SkillVector : normalisées (LOWER(TRIM)), sans
+	   doublon ni valeur vide — « Java » et « java » n’en font qu’une. */
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+	@Query("""
+	    SELECT m.id AS id,
+	           m.categorie AS categorie,
+	           m.budget AS budget,
+	           m.datePublication AS datePublication,
+	           m.dateLimiteCandidature AS dateLimiteCandidature,
+	           (SELECT COUNT(DISTINCT LOWER(TRIM(r))) FROM Mission m3 JOIN m3.competencesRequises r
+	             WHERE m3 = m AND TRIM(r) <> '') AS competencesRequises,
+	           (SELECT COUNT(DISTINCT LOWER(TRIM(c))) FROM Mission m2 JOIN m2.competencesRequises c
+	             WHERE m2 = m AND TRIM(c) <> '' AND LOWER(TRIM(c)) IN :competences) AS competencesCommunes
+	    FROM Mission m
+	    WHERE m.statut = :statut
+	      AND m.verrouillee = false
+	      AND (m.dateLimiteCandidature IS NULL OR m.dateLimiteCandidature >= :today)
+	      AND NOT EXISTS (
+	          SELECT s.id FROM Swipe s
+	          WHERE s.mission = m AND s.freelance.id = :freelanceId)
+	""")
+	Stream<MissionCandidatCompte> streamRecommendationCandidates(@Param("freelanceId") Long freelanceId,
+	                                                             @Param("statut") Mission.Statut statut,
+	                                                             @Param("today") LocalDate today,
+	                                                             @Param("competences") Collection<String> competences);
+
+	/* Même parcours restreint aux missions pré-sélectionnées par l’index de compétences ;
+	   les compétences communes sont alors comptées en mémoire (SkillVector), les
+	   compétences requises comme ci-dessus. */
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+	@Query("""
+	    SELECT m.id AS id,
+	           m.categorie AS categorie,
+	           m.budget AS budget,
+	           m.datePublication AS datePublication,
+	           m.dateLimiteCandidature AS dateLimiteCandidature,
+	           (SELECT COUNT(DISTINCT LOWER(TRIM(r))) FROM Mission m3 JOIN m3.competencesRequises r
+	             WHERE m3 = m AND TRIM(r) <> '') AS competencesRequises
+	    FROM Mission m
+	    WHERE m.id IN :ids
+	      AND m.statut = :statut
+	      AND m.verrouillee = false
+	      AND (m.dateLimiteCandidature IS NULL OR m.dateLimiteCandidature >= :today)
+	      AND NOT EXISTS (
+	          SELECT s.id FROM Swipe s
+	          WHERE s.mission = m AND s.freelance.id = :freelanceId)
+	""")
+	Stream<MissionCandidat> streamRecommendationCandidatesByIdIn(@Param("freelanceId") Long freelanceId,
+	                                                             @Param("statut") Mission.Statut statut,
+	                                                             @Param("today") LocalDate today,
+	                                                             @Param("ids") Collection<Long> ids);
+
+	/* ---------- Index inversé des compétences ----------
+	   Une ligne (mission, compétence) par mission ouverte ; compétence nulle
+	   pour une mission sans compétence requise (LEFT JOIN). */
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+	@Query("""
+	    SELECT m.id AS id, c AS competence
+	    FROM Mission m LEFT JOIN m.competencesRequises c
+	    WHERE m.statut = :statut
+	      AND m.verrouillee = false
+	      AND (m.dateLimiteCandidature IS NULL OR m.dateLimiteCandidature >= :today)
+	""")
+	Stream<CompetenceLigne> streamCompetencesMissionsOuvertes(@Param("statut") Mission.Statut statut,
+	                                                          @Param("today") LocalDate today);
+
+	@Query("SELECT c FROM Mission m JOIN m.competencesRequises c WHERE m.id = :id")
+	List<String> findCompetencesRequisesById(@Param("id") Long id);
+
+	/* ---------- Liste GET /api/missions (keyset sur id décroissant + filtres optionnels) ----------
+	   Une ligne plate par mission (client joint), aucune entité ni collection chargée. */
+	@Query("""
+	    SELECT m.id AS id,
+	           m.titre AS titre,
+	           m.budget AS budget,
+	           m.devise AS devise,
+	           m.categorie AS categorie,
+	           m.statut AS statut,
+	           m.modaliteTravail AS modaliteTravail,
+	           m.datePublication AS datePublication,
+	           m.dateLimiteCandidature AS dateLimiteCandidature,
+	           m.dureeEstimeeJours AS dureeEstimeeJours,
+	           c.id AS clientId,
+	           c.nom AS clientNom,
+	           c.prenom AS clientPrenom,
+	           c.photoProfilUrl AS clientPhotoUrl,
+	           c.localisation AS clientVille
+	    FROM Mission m JOIN m.client c
+	    WHERE m.id < :afterId
+	      AND (:statut IS NULL OR m.statut = :statut)
+	      AND (:categorie IS NULL OR m.categorie = :categorie)
+	      AND (:budgetMin IS NULL OR m.budget >= :budgetMin)
+	      AND (:budgetMax IS NULL OR m.budget <= :budgetMax)
+	      AND (:publieDepuis IS NULL OR m.datePublication >= :publieDepuis)
+	      AND (:publieAvant IS NULL OR m.datePublication < :publieAvant)
+	    ORDER BY m.id DESC
+	""")
+	List<MissionListe> findPage(@Param("statut") Mission.Statut statut,
+	                            @Param("categorie") Mission.Categorie categorie,
+	                            @Param("budgetMin") BigDecimal budgetMin,
+	                            @Param("budgetMax") BigDecimal budgetMax,
+	                            @Param("publieDepuis") LocalDateTime publieDepuis,
+	                            @Param("publieAvant") LocalDateTime publieAvant,
+	                            @Param("afterId") Long afterId,
+	                            Pageable pageable);
+
+	/* Compteurs persistés seuls (CounterService y ajoute les incréments en attente). */
+	@Query("SELECT m.swipesRecus AS swipesRecus, m.likesRecus AS likesRecus FROM Mission m WHERE m.id = :id")
+	Optional<CompteursLigne> findCompteursById(@Param("id") Long id);
+
+	/** Ligne de la liste paginée des missions. */
+	interface MissionListe {
+	    Long getId();
+	    String getTitre();
+	    BigDecimal getBudget();
+	    String getDevise();
+	    Mission.Categorie getCategorie();
+	    Mission.Statut getStatut();
+	    Mission.ModaliteTravail getModaliteTravail();
+	    LocalDateTime getDatePublication();
+	    LocalDate getDateLimiteCandidature();
+	    Integer getDureeEstimeeJours();
+	    Long getClientId();
+	    String getClientNom();
+	    String getClientPrenom();
+	    String getClientPhotoUrl();
+	    String getClientVille();
+	}
+
+	interface CompteursLigne {
+	    Integer getSwipesRecus();
+	    Integer getLikesRecus();
+	}
+
+	/** Projection utilisée par le moteur de scoring des recommandations. */
+	interface MissionCandidat {
+	    Long getId();
+	    Mission.Categorie getCategorie();
+	    BigDecimal getBudget();
+	    LocalDateTime getDatePublication();
+	    LocalDate getDateLimiteCandidature();
+	    Integer getCompetencesRequises();
+	}
+
+	/** Candidat dont les compétences communes ont été comptées en SQL (parcours complet). */
+	interface MissionCandidatCompte extends MissionCandidat {
+	    Long getCompetencesCommunes();
+	}
+
+	/** Couple (mission, compétence) pour la construction de l’index inversé. */
+	interface CompetenceLigne {
+	    Long getId();
+	    String getCompetence();
+	}
+
 
 }
@@ -0,0 +1,91 @@
+package com.projet.freelencetinder.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.projet.freelencetinder.config.MissionSearchSchema;
+import com.projet.freelencetinder.dto.MissionSearchResultDTO;
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur.Langue;
+
+/**
+ * Recherche plein texte sur les colonnes tsvector générées (voir MissionSearchSchema).
+ * SQL natif : la colonne dépend de la langue et ne peut pas être un paramètre JPQL.
+ */
+@Repository
+public class MissionSearchRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final MissionSearchSchema schema;
+
+    private static final RowMapper<MissionSearchResultDTO> MAPPER = (rs, i) -> {
+        MissionSearchResultDTO dto = new MissionSearchResultDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setTitre(rs.getString("titre"));
+        dto.setBudget(rs.getBigDecimal("budget"));
+        dto.setDevise(rs.getString("devise"));
+        dto.setCategorie(Mission.Categorie.valueOf(rs.getString("categorie")));
+        dto.setStatut(Mission.Statut.valueOf(rs.getString("statut")));
+        Timestamp pub = rs.getTimestamp("date_publication");
+        dto.setDatePublication(pub != null ? pub.toLocalDateTime() : null);
+        dto.setRang(rs.getDouble("rang"));
+        return dto;
+    };
+
+    public MissionSearchRepository(NamedParameterJdbcTemplate jdbc, MissionSearchSchema schema) {
+        this.jdbc   = jdbc;
+        this.schema = schema;
+    }
+
+    public Page<MissionSearchResultDTO> rechercher(String texte,
+                                                   Langue langue,
+                                                   Mission.Statut statut,
+                                                   Mission.Categorie categorie,
+                                                   Pageable pageable) {
+        String col = MissionSearchSchema.colonne(langue);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("config", schema.config(langue))
+                .addValue("q", texte)
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+
+        StringBuilder filtres = new StringBuilder();
+        if (statut != null) {
+            filtres.append(" AND m.statut = :statut");
+            params.addValue("statut", statut.name());
+        }
+        if (categorie != null) {
+            filtres.append(" AND m.categorie = :categorie");
+            params.addValue("categorie", categorie.name());
+        }
+
+        List<MissionSearchResultDTO> items = jdbc.query("""
+                SELECT m.id, m.titre, m.budget, m.devise, m.categorie, m.statut, m.date_publication,
+                       ts_rank_cd(m.%1$s, q) AS rang
+                FROM mission m, websearch_to_tsquery(CAST(:config AS regconfig), :q) q
+                WHERE m.%1$s @@ q%2$s
+                ORDER BY rang DESC, m.id DESC
+                LIMIT :limit OFFSET :offset
+                """.formatted(col, filtres), params, MAPPER);
+
+        // Page incomplète dès la première page : inutile de compter
+        if (pageable.getOffset() == 0 && items.size() < pageable.getPageSize()) {
+            return new PageImpl<>(items, pageable, items.size());
+        }
+        Long total = jdbc.queryForObject("""
+                SELECT count(*)
+                FROM mission m, websearch_to_tsquery(CAST(:config AS regconfig), :q) q
+                WHERE m.%1$s @@ q%2$s
+                """.formatted(col, filtres), params, Long.class);
+        return new PageImpl<>(items, pageable, total != null ? total : 0L);
+    }
+}
@@ -0,0 +1,29 @@
+package com.projet.freelencetinder.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.projet.freelencetinder.models.OutboxEvent;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query(value = "SELECT DISTINCT shard FROM outbox_event", nativeQuery = true)
+    List<Integer> findShardsEnAttente();
+
+    /* Verrou consultatif tenu jusqu’à la fin de la transaction : un seul relais par partition. */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:espace, :shard)", nativeQuery = true)
+    boolean tryLockShard(@Param("espace") int espace, @Param("shard") int shard);
+
+    /* Ordre d’insertion (id), pas de commit ; SKIP LOCKED : jamais d’attente sur une ligne déjà prise. */
+    @Query(value = """
+        SELECT * FROM outbox_event
+        WHERE shard = :shard
+        ORDER BY id
+        LIMIT :limite
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<OutboxEvent> lockLot(@Param("shard") int shard, @Param("limite") int limite);
+}
@@ -1,17 +1,36 @@
 // SwipeRepository.java
 package com.projet.freelencetinder.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.projet.freelencetinder.models.Mission;
 import com.projet.freelencetinder.models.Swipe;
 
 public interface SwipeRepository extends JpaRepository<Swipe, Long> {
 
     Optional<Swipe> findByFreelanceIdAndMissionId(Long freelanceId, Long missionId);
 
+    /* Insertion d’abord (uk_swipe_freelance_mission) : vide si le freelance a déjà swipé
+       la mission, y compris sur un double envoi concurrent. Le swipe inséré est renvoyé
+       géré par le contexte de persistance. */
+    @Query(value = """
+        INSERT INTO swipe (freelance_id, mission_id, decision, date_swipe, a_genere_match, version)
+        VALUES (:freelanceId, :missionId, :decision, :at, false, 0)
+        ON CONFLICT (freelance_id, mission_id) DO NOTHING
+        RETURNING *
+        """, nativeQuery = true)
+    Optional<Swipe> insertSiAbsent(@Param("freelanceId") Long freelanceId,
+                                   @Param("missionId") Long missionId,
+                                   @Param("decision") String decision,
+                                   @Param("at") LocalDateTime at);
+
     List<Swipe> findByFreelanceId(Long freelanceId);
     
     List<Swipe> findByFreelanceIdAndDecision(Long freelanceId, Swipe.Decision decision);
@@ -21,5 +40,19 @@ public interface SwipeRepository extends JpaRepository<Swipe, Long> {
     /* NOUVEAU ----------------------------------------------------------------- */
     /** Tous les swipes LIKE d’une mission (côté freelances). */
     List<Swipe> findByMissionIdAndDecision(Long missionId, Swipe.Decision decision);
-    
+
+    /** Catégories des missions swipées avec une décision donnée (sans charger les missions). */
+    @Query("SELECT DISTINCT s.mission.categorie FROM Swipe s " +
+           "WHERE s.freelance.id = :freelanceId AND s.decision = :decision")
+    List<Mission.Categorie> findCategoriesByFreelanceIdAndDecision(@Param("freelanceId") Long freelanceId,
+                                                                   @Param("decision") Swipe.Decision decision);
+
+    /* Deck swipe : cartes déjà swipées parmi celles à servir. */
+    @Query("SELECT s.mission.id FROM Swipe s WHERE s.freelance.id = :freelanceId AND s.mission.id IN :missionIds")
+    List<Long> findMissionIdsSwipees(@Param("freelanceId") Long freelanceId,
+                                     @Param("missionIds") Collection<Long> missionIds);
+
+    /* Deck swipe : freelances ayant déjà swipé une mission rouverte. */
+    @Query("SELECT s.freelance.id FROM Swipe s WHERE s.mission.id = :missionId")
+    List<Long> findFreelanceIdsByMissionId(@Param("missionId") Long missionId);
 }
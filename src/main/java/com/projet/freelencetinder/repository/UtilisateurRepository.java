@@ -1,17 +1,35 @@
 package com.projet.freelencetinder.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.projet.freelencetinder.models.Mission;
 import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.models.Utilisateur.Disponibilite;
+import com.projet.freelencetinder.models.Utilisateur.NiveauExperience;
+import com.projet.freelencetinder.models.Utilisateur.TypeUtilisateur;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long> {
+public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long>,
+                                               JpaSpecificationExecutor<Utilisateur> {
     boolean existsByEmail(String email);
     Optional<Utilisateur> findByEmail(String email);
+
+    @Query("select u.id from Utilisateur u where u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
     
     
     
@@ -24,4 +42,215 @@ public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long>
     """)
     java.math.BigDecimal totalGagneParFreelance(Long freelanceId);
 
+    /* ---------- Index inversé des compétences (freelances actifs) ---------- */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("""
+        SELECT u.id AS id, c AS competence
+        FROM Utilisateur u JOIN u.competences c
+        WHERE u.typeUtilisateur = :type AND u.estActif = true
+    """)
+    Stream<CompetenceLigne> streamCompetencesActifs(@Param("type") TypeUtilisateur type);
+
+    @Query("""
+        SELECT c FROM Utilisateur u JOIN u.competences c
+        WHERE u.id = :id AND u.typeUtilisateur = :type AND u.estActif = true
+    """)
+    List<String> findCompetencesActif(@Param("id") Long id, @Param("type") TypeUtilisateur type);
+
+    /* ---------- Explore client (keyset sur id décroissant) ----------
+       Freelances actifs de la catégorie de la mission, ni déjà swipés par le
+       client pour cette mission, ni déjà affectés à celle-ci. Une ligne légère
+       par freelance ; compétences et badges sont chargés ensuite par lot. */
+    @Query("""
+        SELECT u.id AS id,
+               u.nom AS nom,
+               u.prenom AS prenom,
+               u.photoProfilUrl AS photoProfilUrl,
+               u.localisation AS localisation,
+               u.niveauExperience AS niveauExperience,
+               u.disponibilite AS disponibilite,
+               u.tarifHoraire AS tarifHoraire,
+               u.noteMoyenne AS noteMoyenne
+        FROM Utilisateur u JOIN u.categories cat
+        WHERE cat = :categorie
+          AND u.typeUtilisateur = :type
+          AND u.estActif = true
+          AND u.id < :afterId
+          AND NOT EXISTS (
+              SELECT cs.id FROM ClientSwipe cs
+              WHERE cs.client.id = :clientId AND cs.mission.id = :missionId AND cs.freelance = u)
+          AND NOT EXISTS (
+              SELECT m.id FROM Mission m
+              WHERE m.id = :missionId AND m.freelanceSelectionne = u)
+        ORDER BY u.id DESC
+    """)
+    List<FreelanceCarte> findExploreCandidates(@Param("clientId") Long clientId,
+                                               @Param("missionId") Long missionId,
+                                               @Param("categorie") Mission.Categorie categorie,
+                                               @Param("type") TypeUtilisateur type,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    /* ---------- Recommandations client (curseur base, une ligne légère par freelance) ----------
+       Mêmes filtres que l’explore ; à consommer dans une transaction et à fermer. */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("""
+        SELECT u.id AS id,
+               u.noteMoyenne AS noteMoyenne,
+               u.tarifHoraire AS tarifHoraire,
+               u.disponibilite AS disponibilite,
+               u.dernierSwipeAt AS dernierSwipeAt
+        FROM Utilisateur u JOIN u.categories cat
+        WHERE cat = :categorie
+          AND u.typeUtilisateur = :type
+          AND u.estActif = true
+          AND NOT EXISTS (
+              SELECT cs.id FROM ClientSwipe cs
+              WHERE cs.client.id = :clientId AND cs.mission.id = :missionId AND cs.freelance = u)
+          AND NOT EXISTS (
+              SELECT m.id FROM Mission m
+              WHERE m.id = :missionId AND m.freelanceSelectionne = u)
+    """)
+    Stream<FreelanceCandidat> streamRecommendationCandidates(@Param("clientId") Long clientId,
+                                                             @Param("missionId") Long missionId,
+                                                             @Param("categorie") Mission.Categorie categorie,
+                                                             @Param("type") TypeUtilisateur type);
+
+    /* Mêmes filtres, restreints aux freelances pré-sélectionnés par l’index de compétences. */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("""
+        SELECT u.id AS id,
+               u.noteMoyenne AS noteMoyenne,
+               u.tarifHoraire AS tarifHoraire,
+               u.disponibilite AS disponibilite,
+               u.dernierSwipeAt AS dernierSwipeAt
+        FROM Utilisateur u JOIN u.categories cat
+        WHERE u.id IN :ids
+          AND cat = :categorie
+          AND u.typeUtilisateur = :type
+          AND u.estActif = true
+          AND NOT EXISTS (
+              SELECT cs.id FROM ClientSwipe cs
+              WHERE cs.client.id = :clientId AND cs.mission.id = :missionId AND cs.freelance = u)
+          AND NOT EXISTS (
+              SELECT m.id FROM Mission m
+              WHERE m.id = :missionId AND m.freelanceSelectionne = u)
+    """)
+    Stream<FreelanceCandidat> streamRecommendationCandidatesByIdIn(@Param("clientId") Long clientId,
+                                                                   @Param("missionId") Long missionId,
+                                                                   @Param("categorie") Mission.Categorie categorie,
+                                                                   @Param("type") TypeUtilisateur type,
+                                                                   @Param("ids") Collection<Long> ids);
+
+    /* Variante de démarrage (index des compétences pas encore chargé) : compétences communes en SQL,
+       normalisées et sans doublon comme dans SkillVector. */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("""
+        SELECT u.id AS id,
+               u.noteMoyenne AS noteMoyenne,
+               u.tarifHoraire AS tarifHoraire,
+               u.disponibilite AS disponibilite,
+               u.dernierSwipeAt AS dernierSwipeAt,
+               (SELECT COUNT(DISTINCT LOWER(TRIM(c))) FROM Utilisateur u2 JOIN u2.competences c
+                 WHERE u2 = u AND TRIM(c) <> '' AND LOWER(TRIM(c)) IN :competences) AS competencesCommunes
+        FROM Utilisateur u JOIN u.categories cat
+        WHERE cat = :categorie
+          AND u.typeUtilisateur = :type
+          AND u.estActif = true
+          AND NOT EXISTS (
+              SELECT cs.id FROM ClientSwipe cs
+              WHERE cs.client.id = :clientId AND cs.mission.id = :missionId AND cs.freelance = u)
+          AND NOT EXISTS (
+              SELECT m.id FROM Mission m
+              WHERE m.id = :missionId AND m.freelanceSelectionne = u)
+    """)
+    Stream<FreelanceCandidatCompte> streamRecommendationCandidatesAvecCompte(@Param("clientId") Long clientId,
+                                                                             @Param("missionId") Long missionId,
+                                                                             @Param("categorie") Mission.Categorie categorie,
+                                                                             @Param("type") TypeUtilisateur type,
+                                                                             @Param("competences") Collection<String> competences);
+
+    @Query("""
+        SELECT u.id AS id,
+               u.nom AS nom,
+               u.prenom AS prenom,
+               u.photoProfilUrl AS photoProfilUrl,
+               u.localisation AS localisation,
+               u.niveauExperience AS niveauExperience,
+               u.disponibilite AS disponibilite,
+               u.tarifHoraire AS tarifHoraire,
+               u.noteMoyenne AS noteMoyenne
+        FROM Utilisateur u
+        WHERE u.id IN :ids
+    """)
+    List<FreelanceCarte> findCartesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.id AS id, c AS competence FROM Utilisateur u JOIN u.competences c WHERE u.id IN :ids")
+    List<CompetenceLigne> findCompetencesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.id AS id, b AS badge FROM Utilisateur u JOIN u.listeBadges b WHERE u.id IN :ids")
+    List<BadgeLigne> findBadgesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.id AS id, cat AS categorie FROM Utilisateur u JOIN u.categories cat WHERE u.id IN :ids")
+    List<CategorieLigne> findCategoriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /* Compteurs persistés seuls (CounterService y ajoute les incréments en attente). */
+    @Query("""
+        SELECT u.nombreSwipes AS nombreSwipes, u.likesRecus AS likesRecus,
+               u.matchesObtenus AS matchesObtenus, u.dernierSwipeAt AS dernierSwipeAt
+        FROM Utilisateur u
+        WHERE u.id = :id
+    """)
+    Optional<CompteursLigne> findCompteursById(@Param("id") Long id);
+
+    /** Couple (utilisateur, compétence) pour la construction de l’index inversé. */
+    interface CompetenceLigne {
+        Long getId();
+        String getCompetence();
+    }
+
+    interface BadgeLigne {
+        Long getId();
+        String getBadge();
+    }
+
+    interface CategorieLigne {
+        Long getId();
+        Mission.Categorie getCategorie();
+    }
+
+    /** Carte freelance de l’explore client (colonnes scalaires seulement). */
+    interface FreelanceCarte {
+        Long getId();
+        String getNom();
+        String getPrenom();
+        String getPhotoProfilUrl();
+        String getLocalisation();
+        NiveauExperience getNiveauExperience();
+        Disponibilite getDisponibilite();
+        Double getTarifHoraire();
+        Double getNoteMoyenne();
+    }
+
+    interface CompteursLigne {
+        Integer getNombreSwipes();
+        Integer getLikesRecus();
+        Integer getMatchesObtenus();
+        LocalDateTime getDernierSwipeAt();
+    }
+
+    /** Projection utilisée par le moteur de scoring des freelances. */
+    interface FreelanceCandidat {
+        Long getId();
+        Double getNoteMoyenne();
+        Double getTarifHoraire();
+        Disponibilite getDisponibilite();
+        LocalDateTime getDernierSwipeAt();
+    }
+
+    /** Candidat dont les compétences communes ont été comptées en SQL. */
+    interface FreelanceCandidatCompte extends FreelanceCandidat {
+        Long getCompetencesCommunes();
+    }
+
 }
@@ -0,0 +1,109 @@
+package com.projet.freelencetinder.repository;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.models.Utilisateur.Disponibilite;
+import com.projet.freelencetinder.models.Utilisateur.Langue;
+import com.projet.freelencetinder.models.Utilisateur.NiveauExperience;
+import com.projet.freelencetinder.models.Utilisateur.TypeUtilisateur;
+
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+/**
+ * Filtres de recherche d’utilisateurs traduits en prédicats SQL (Specification).
+ * Chaque filtre absent (null / vide) ne produit aucun prédicat.
+ * Les filtres sur collections passent par des sous-requêtes EXISTS :
+ * pas de jointure multipliant les lignes, donc pas de DISTINCT ni de pagination faussée.
+ */
+public final class UtilisateurSpecifications {
+
+    private UtilisateurSpecifications() {}
+
+    /** Critères de GET /api/utilisateurs. */
+    public record Filtre(TypeUtilisateur type,
+                         String localisation,
+                         List<String> competences,
+                         Double tarifMin,
+                         Double tarifMax,
+                         Double tarifJourMin,
+                         Double tarifJourMax,
+                         Disponibilite dispo,
+                         NiveauExperience niveau,
+                         Langue langue,
+                         List<Mission.Categorie> categories) {}
+
+    public static Specification<Utilisateur> depuis(Filtre f) {
+        return Specification.allOf(
+                egal("typeUtilisateur", f.type()),
+                localisationContient(f.localisation()),
+                possedeCompetences(f.competences()),
+                dansCategories(f.categories()),
+                entre("tarifHoraire", f.tarifMin(), f.tarifMax()),
+                entre("tarifJournalier", f.tarifJourMin(), f.tarifJourMax()),
+                egal("disponibilite", f.dispo()),
+                egal("niveauExperience", f.niveau()),
+                egal("languePref", f.langue()));
+    }
+
+    /* =============================================================
+       PRÉDICATS
+       ============================================================= */
+    static Specification<Utilisateur> egal(String attribut, Object valeur) {
+        return (root, query, cb) -> valeur == null ? null : cb.equal(root.get(attribut), valeur);
+    }
+
+    static Specification<Utilisateur> entre(String attribut, Double min, Double max) {
+        return (root, query, cb) -> {
+            if (min == null && max == null) return null;
+            if (min == null) return cb.le(root.<Double>get(attribut), max);
+            if (max == null) return cb.ge(root.<Double>get(attribut), min);
+            return cb.between(root.<Double>get(attribut), min, max);
+        };
+    }
+
+    static Specification<Utilisateur> localisationContient(String localisation) {
+        return (root, query, cb) -> {
+            if (localisation == null || localisation.isBlank()) return null;
+            String motif = "%" + echapper(localisation.trim().toLowerCase(Locale.ROOT)) + "%";
+            return cb.like(cb.lower(root.<String>get("localisation")), motif, '\\');
+        };
+    }
+
+    /** Toutes les compétences demandées (une sous-requête EXISTS par compétence). */
+    static Specification<Utilisateur> possedeCompetences(List<String> competences) {
+        return (root, query, cb) -> {
+            if (competences == null || competences.isEmpty()) return null;
+            return cb.and(competences.stream()
+                    .map(c -> {
+                        Subquery<Long> sq = query.subquery(Long.class);
+                        Root<Utilisateur> u = sq.correlate(root);
+                        Join<Utilisateur, String> comp = u.join("competences");
+                        return cb.exists(sq.select(cb.literal(1L)).where(cb.equal(comp, c)));
+                    })
+                    .toArray(Predicate[]::new));
+        };
+    }
+
+    /** Au moins une des catégories demandées. */
+    static Specification<Utilisateur> dansCategories(List<Mission.Categorie> categories) {
+        return (root, query, cb) -> {
+            if (categories == null || categories.isEmpty()) return null;
+            Subquery<Long> sq = query.subquery(Long.class);
+            Root<Utilisateur> u = sq.correlate(root);
+            Join<Utilisateur, Mission.Categorie> cat = u.join("categories");
+            return cb.exists(sq.select(cb.literal(1L)).where(cat.in(categories)));
+        };
+    }
+
+    private static String echapper(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -24,6 +25,7 @@ import com.projet.freelencetinder.models.Mission.Categorie;
 import com.projet.freelencetinder.models.Utilisateur;
 import com.projet.freelencetinder.models.Utilisateur.TypeClient;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.SkillIndexService.FreelanceProfilEvent;
 
 @Service
 public class AuthService {
@@ -33,6 +35,7 @@ public class AuthService {
     @Autowired private AuthenticationManager authenticationManager;
     @Autowired private JwtService            jwtService;
     @Autowired private UserDetailsService    userDetailsService;
+    @Autowired private ApplicationEventPublisher publisher;
 
     /* =================================================================
        Inscription + création du profil de base
@@ -139,6 +142,11 @@ public class AuthService {
         normalizeCollections(u);
 
         userRepo.save(u);
+
+        /* ---------- Index des compétences (après commit) ---------- */
+        if (u.getTypeUtilisateur() == Utilisateur.TypeUtilisateur.FREELANCE) {
+            publisher.publishEvent(new FreelanceProfilEvent(u.getId()));
+        }
     }
 
     /* =================================================================
@@ -2,117 +2,185 @@ package com.projet.freelencetinder.servcie;
 
 import com.projet.freelencetinder.dto.ChatMessageResponse;
 import com.projet.freelencetinder.dto.SendMessageRequest;
+import com.projet.freelencetinder.dto.UnreadDeltaDto;
 import com.projet.freelencetinder.models.ChatMessage;
-import com.projet.freelencetinder.models.Conversation;
-import com.projet.freelencetinder.models.Utilisateur;
 import com.projet.freelencetinder.repository.ChatMessageRepository;
 import com.projet.freelencetinder.repository.ConversationRepository;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
-import org.springframework.data.domain.Page;
+import com.projet.freelencetinder.servcie.ConversationParticipantCache.Participants;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
 
 @Service
 public class ChatMessageService {
 
+    private static final int TAILLE_PAGE_MAX = 100;
+
     private final ChatMessageRepository messageRepo;
     private final ConversationRepository conversationRepo;
     private final UtilisateurRepository userRepo;
     private final SimpMessagingTemplate broker;
+    private final ChatWriteBehindService writeBehind;
+    private final ConversationParticipantCache participants;
+    private final TransactionTemplate tx;
 
     public ChatMessageService(ChatMessageRepository messageRepo,
                               ConversationRepository conversationRepo,
                               UtilisateurRepository userRepo,
-                              SimpMessagingTemplate broker) {
+                              SimpMessagingTemplate broker,
+                              ChatWriteBehindService writeBehind,
+                              ConversationParticipantCache participants,
+                              PlatformTransactionManager transactionManager) {
         this.messageRepo = messageRepo;
         this.conversationRepo = conversationRepo;
         this.userRepo = userRepo;
         this.broker = broker;
+        this.writeBehind = writeBehind;
+        this.participants = participants;
+        this.tx = new TransactionTemplate(transactionManager);
     }
 
     /* --------------------------------------------------------- */
     @Transactional
     public ChatMessageResponse sendMessage(SendMessageRequest req, Long senderId) {
 
-        Conversation conv = conversationRepo
-            .findById(req.getConversationId())
-            .orElseThrow(() -> new IllegalArgumentException("Conversation inexistante"));
-
-        Utilisateur sender = userRepo.getReferenceById(senderId);
+        Long convId = req.getConversationId();
+        Participants p = participants.get(convId);
 
         // Vérifie que l'expéditeur appartient à la conversation
-        if (!isParticipant(conv, senderId)) {
+        if (!p.contient(senderId)) {
             throw new IllegalStateException("Accès refusé");
         }
 
-        Utilisateur receiver = sender.getId().equals(conv.getClient().getId())
-            ? conv.getFreelance()
-            : conv.getClient();
+        boolean receiverIsClient = !p.estClient(senderId);
+        Long receiverId = p.autreId(senderId);
+        String receiverEmail = p.autreEmail(senderId);
 
         ChatMessage.MessageType type = resolveType(req.getType());
         if (type == ChatMessage.MessageType.FILE && (req.getFileUrl() == null || req.getFileUrl().isBlank())) {
             throw new IllegalArgumentException("fileUrl obligatoire pour un message FILE");
         }
 
+        String content = req.getContent() != null ? req.getContent().trim() : "";
+
+        if (writeBehind.estActif()) {
+            // Mode pipeline : identifiant attribué, écriture par lot ; la diffusion suit le commit du lot
+            return writeBehind.soumettre(convId, senderId, p.email(senderId),
+                                         receiverId, receiverEmail, receiverIsClient,
+                                         type, content, req.getFileUrl(), req.getFileType());
+        }
+
+        // Références seulement : ni la conversation ni les utilisateurs ne sont chargés
         ChatMessage msg = new ChatMessage();
-        msg.setConversation(conv);
-        msg.setSender(sender);
-        msg.setReceiver(receiver);
-        msg.setContent(req.getContent() != null ? req.getContent().trim() : "");
+        msg.setConversation(conversationRepo.getReferenceById(convId));
+        msg.setSender(userRepo.getReferenceById(senderId));
+        msg.setReceiver(userRepo.getReferenceById(receiverId));
+        msg.setContent(content);
         msg.setType(type);
         msg.setFileUrl(req.getFileUrl());
         msg.setFileType(req.getFileType());
 
         ChatMessage saved = messageRepo.save(msg);
 
-        // Mise à jour snapshot conversation
-        conv.setLastMessageAt(saved.getSentAt());
-        conv.setLastMessageType(saved.getType());
-        conv.setLastMessageContent(saved.getContent());
-        conversationRepo.save(conv);
+        // Snapshot + compteur du destinataire en un seul UPDATE
+        conversationRepo.updateSnapshot(convId, saved.getSentAt(), saved.getType(), saved.getContent(),
+                                        receiverIsClient ? 1 : 0, receiverIsClient ? 0 : 1);
 
         ChatMessageResponse resp = toDto(saved);
 
         // Diffusion WebSocket
-        broker.convertAndSend("/topic/conversations/" + conv.getId(), resp);
-        broker.convertAndSendToUser(receiver.getEmail(), "/queue/messages", resp);
+        diffuser("/topic/conversations/" + convId, resp);
+        pousser(receiverEmail, "/queue/messages", resp);
+        pousser(receiverEmail, "/queue/unread", new UnreadDeltaDto(convId, 1));
 
         return resp;
     }
 
     /* --------------------------------------------------------- */
+    /* Historique du plus récent au plus ancien.
+       Page suivante : before = (timestamp, id) du dernier message reçu ; coût constant
+       quelle que soit la profondeur, et stable quand de nouveaux messages arrivent. */
     @Transactional(readOnly = true)
-    public Page<ChatMessageResponse> getConversationMessages(Long conversationId,
-                                                             int page, int size,
-                                                             Long requesterId) {
+    public Slice<ChatMessageResponse> getConversationMessages(Long conversationId,
+                                                              LocalDateTime beforeSentAt,
+                                                              Long beforeId,
+                                                              int size,
+                                                              Long requesterId) {
         // Sécurité : vérifie que le demandeur est participant
-        Conversation conv = conversationRepo.findById(conversationId)
-            .orElseThrow(() -> new IllegalArgumentException("Conversation inexistante"));
-        if (!isParticipant(conv, requesterId)) {
+        if (!participants.get(conversationId).contient(requesterId)) {
             throw new IllegalStateException("Accès refusé");
         }
 
-        return messageRepo
-            .findByConversationIdOrderBySentAtDesc(conversationId, PageRequest.of(page, size))
-            .map(this::toDto);
+        if ((beforeSentAt == null) != (beforeId == null)) {
+            throw new IllegalArgumentException("beforeSentAt et beforeId vont ensemble");
+        }
+        PageRequest limite = PageRequest.of(0, Math.max(1, Math.min(size, TAILLE_PAGE_MAX)));
+
+        Slice<ChatMessage> slice = beforeId == null
+            ? messageRepo.findLatest(conversationId, limite)
+            : messageRepo.findBefore(conversationId, beforeSentAt, beforeId, limite);
+        return slice.map(this::toDto);
     }
 
     /* --------------------------------------------------------- */
-    @Transactional
+    /* Pas de @Transactional : en mode pipeline, les messages encore en file de cette
+       conversation sont écrits d’abord (transaction propre), sinon ils arriveraient en
+       base non lus après la remise à zéro du compteur. */
     public void markConversationSeen(Long conversationId, Long userId) {
-        Conversation conv = conversationRepo.findById(conversationId)
-            .orElseThrow(() -> new IllegalArgumentException("Conversation inexistante"));
-        if (!isParticipant(conv, userId)) {
+        Participants p = participants.get(conversationId);
+        if (!p.contient(userId)) {
             throw new IllegalStateException("Accès refusé");
         }
+        if (writeBehind.estActif() && !writeBehind.viderConversation(conversationId)) {
+            throw new IllegalStateException("Messages en cours d’enregistrement, réessayer");
+        }
+        tx.executeWithoutResult(status -> marquerLus(conversationId, userId, p));
+    }
+
+    private void marquerLus(Long conversationId, Long userId, Participants p) {
         messageRepo.markAllAsSeen(conversationId, userId);
+
+        // Valeur avant remise à zéro, lue dans le même UPDATE : sert de delta pour le badge client
+        int dejaNonLus = conversationRepo.resetUnread(conversationId, p.estClient(userId)).orElse(0);
+
+        if (dejaNonLus > 0) {
+            pousser(p.email(userId), "/queue/unread", new UnreadDeltaDto(conversationId, -dejaNonLus));
+        }
     }
 
     /* --------------------------------------------------------- */
-    private boolean isParticipant(Conversation c, Long userId) {
-        return c.getClient().getId().equals(userId) || c.getFreelance().getId().equals(userId);
+    /* Pushs du chat hors outbox (RealtimeDispatcher) : envoi direct au broker après
+       le commit, dans les deux modes (en pipeline, celui du lot : ChatWriteBehindService). Au mieux une fois : un client qui rate un push
+       le rattrape par l’historique (getConversationMessages) et le badge par
+       GET /api/conversations. */
+    private void pousser(String email, String destination, Object payload) {
+        apresCommit(() -> broker.convertAndSendToUser(email, destination, payload));
+    }
+
+    private void diffuser(String destination, Object payload) {
+        apresCommit(() -> broker.convertAndSend(destination, payload));
+    }
+
+    private static void apresCommit(Runnable envoi) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            envoi.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                envoi.run();
+            }
+        });
     }
 
     private ChatMessage.MessageType resolveType(String raw) {
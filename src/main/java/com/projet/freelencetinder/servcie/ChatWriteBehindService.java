@@ -0,0 +1,338 @@
+package com.projet.freelencetinder.servcie;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.projet.freelencetinder.dto.ChatAckDto;
+import com.projet.freelencetinder.dto.ChatMessageResponse;
+import com.projet.freelencetinder.dto.UnreadDeltaDto;
+import com.projet.freelencetinder.models.ChatMessage;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Écriture différée des messages de chat (app.chat.pipeline.active=true).
+ *
+ * Le message reçoit son identifiant immédiatement (blocs pré-alloués sur la séquence
+ * identity de chat_message, partagée avec le mode synchrone) et l’expéditeur le reçoit
+ * en réponse (/user/queue/ack) sans attendre la base. Il est persisté par lot : un
+ * INSERT JDBC batch pour tout le lot et un seul UPDATE du snapshot / des compteurs
+ * par conversation.
+ *
+ * Diffusion après commit : le topic de la conversation, /user/queue/messages et
+ * /user/queue/unread ne reçoivent un message qu’une fois son lot commité, en même
+ * temps que l’accusé PERSISTE de l’expéditeur (/user/queue/persisted). Un lot rejeté
+ * par une contrainte (conversation ou utilisateur supprimé pendant l’attente…) est
+ * réécrit message par message pour isoler les lignes fautives ; un lot en échec
+ * transitoire est retenté. Un message perdu (ligne rejetée, ou TENTATIVES_MAX
+ * atteint) est signalé en ECHEC à l’expéditeur seul : personne d’autre ne l’a vu.
+ *
+ * Garantie : la file est en mémoire. Un arrêt brutal du nœud perd les messages non
+ * encore commités (au plus quelques flush-ms de trafic) ; ils n’ont été vus que de
+ * leur expéditeur, qui ne reçoit alors ni PERSISTE ni ECHEC et doit les renvoyer.
+ * Ce qu’un destinataire a reçu est toujours en base. Comme en mode synchrone, les
+ * pushs sont au plus une fois (rattrapage par l’historique).
+ */
+@Service
+public class ChatWriteBehindService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatWriteBehindService.class);
+
+    private static final int TENTATIVES_MAX = 3;
+
+    private static final Comparator<MessageEnAttente> PLUS_RECENT =
+            Comparator.comparing(MessageEnAttente::sentAt).thenComparingLong(MessageEnAttente::id);
+
+    private static final String INSERT_MESSAGE = """
+        INSERT INTO chat_message
+            (id, conversation_id, sender_id, receiver_id, content, type, file_url, file_type, sent_at, seen)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, false)
+        """;
+
+    /* Dernier message du lot + non-lus cumulés ; version incrémentée comme le ferait JPA.
+       Le snapshot ne recule jamais : un message retenté peut arriver après un plus récent. */
+    private static final String UPDATE_SNAPSHOT = """
+        UPDATE conversation
+        SET last_message_type    = CASE WHEN last_message_at IS NULL OR last_message_at <= ?
+                                        THEN ? ELSE last_message_type END,
+            last_message_content = CASE WHEN last_message_at IS NULL OR last_message_at <= ?
+                                        THEN ? ELSE last_message_content END,
+            last_message_at      = GREATEST(last_message_at, ?),
+            unread_for_client    = unread_for_client + ?,
+            unread_for_freelance = unread_for_freelance + ?,
+            version              = version + 1
+        WHERE id = ?
+        """;
+
+    /** Message accepté, connu de son seul expéditeur, pas encore en base. */
+    record MessageEnAttente(long id,
+                            long conversationId,
+                            long senderId,
+                            String senderEmail,
+                            long receiverId,
+                            String receiverEmail,
+                            boolean receiverIsClient,
+                            String content,
+                            ChatMessage.MessageType type,
+                            String fileUrl,
+                            String fileType,
+                            LocalDateTime sentAt,
+                            int tentatives) {
+
+        MessageEnAttente retente() {
+            return new MessageEnAttente(id, conversationId, senderId, senderEmail, receiverId, receiverEmail,
+                    receiverIsClient, content, type, fileUrl, fileType, sentAt, tentatives + 1);
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final SimpMessagingTemplate broker;
+    private final boolean active;
+    private final int tailleLot;
+    private final int blocIds;
+
+    /* Les messages retentés repassent en tête, dans leur ordre d’origine. */
+    private final LinkedBlockingDeque<MessageEnAttente> file = new LinkedBlockingDeque<>();
+    /** Identifiants réservés non encore attribués. Toujours manipulé sous verrou. */
+    private final ArrayDeque<Long> idsLibres = new ArrayDeque<>();
+    /** Un seul écrivain à la fois (tâche planifiée, vidage explicite, arrêt). */
+    private final Object verrouEcriture = new Object();
+
+    public ChatWriteBehindService(JdbcTemplate jdbc,
+                                  PlatformTransactionManager transactionManager,
+                                  SimpMessagingTemplate broker,
+                                  @Value("${app.chat.pipeline.active:false}") boolean active,
+                                  @Value("${app.chat.pipeline.taille-lot:200}") int tailleLot,
+                                  @Value("${app.chat.pipeline.bloc-ids:100}") int blocIds) {
+        this.jdbc      = jdbc;
+        this.broker    = broker;
+        this.active    = active;
+        this.tailleLot = tailleLot;
+        this.blocIds   = blocIds;
+        // Transaction propre au lot : l’accusé n’est envoyé qu’après son commit
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean estActif() {
+        return active;
+    }
+
+    /* =============================================================
+       SOUMISSION
+       ============================================================= */
+    /**
+     * Attribue un identifiant au message, le met en file d’écriture et renvoie
+     * la réponse destinée à l’expéditeur seul ; la diffusion suit le commit du lot.
+     */
+    public ChatMessageResponse soumettre(Long conversationId,
+                                         Long senderId, String senderEmail,
+                                         Long receiverId, String receiverEmail, boolean receiverIsClient,
+                                         ChatMessage.MessageType type, String content,
+                                         String fileUrl, String fileType) {
+        MessageEnAttente m = new MessageEnAttente(prochainId(), conversationId, senderId, senderEmail,
+                receiverId, receiverEmail, receiverIsClient, content, type, fileUrl, fileType, LocalDateTime.now(), 0);
+        file.add(m);
+        return reponse(m);
+    }
+
+    private static ChatMessageResponse reponse(MessageEnAttente m) {
+        return new ChatMessageResponse(m.id(), m.conversationId(), m.senderId(), m.receiverId(), m.content(),
+                m.type().name(), m.fileUrl(), m.fileType(), m.sentAt(), false);
+    }
+
+    private long prochainId() {
+        synchronized (idsLibres) {
+            if (idsLibres.isEmpty()) {
+                idsLibres.addAll(jdbc.queryForList(
+                        "SELECT nextval(pg_get_serial_sequence('chat_message', 'id')) FROM generate_series(1, ?)",
+                        Long.class, blocIds));
+            }
+            return idsLibres.removeFirst();
+        }
+    }
+
+    /* =============================================================
+       ÉCRITURE PAR LOT
+       ============================================================= */
+    @Scheduled(fixedDelayString = "${app.chat.pipeline.flush-ms:50}")
+    public void ecrire() {
+        if (active) vider();
+    }
+
+    /** Persiste les messages en file. */
+    private void vider() {
+        synchronized (verrouEcriture) {
+            List<MessageEnAttente> lot = new ArrayList<>(tailleLot);
+            while (file.drainTo(lot, tailleLot) > 0) {
+                boolean ok = ecrireLot(lot);
+                lot.clear();
+                if (!ok) break;              // lot remis en file : nouvel essai au prochain passage
+            }
+        }
+    }
+
+    /**
+     * Persiste les seuls messages en file d’une conversation, avant une opération
+     * qui doit les voir en base (marquage « lu »). À appeler hors transaction :
+     * l’écriture prend sa propre connexion.
+     * @return false si certains sont restés en file après un échec transitoire
+     */
+    public boolean viderConversation(long conversationId) {
+        synchronized (verrouEcriture) {
+            List<MessageEnAttente> lot = new ArrayList<>();
+            for (Iterator<MessageEnAttente> it = file.iterator(); it.hasNext(); ) {
+                MessageEnAttente m = it.next();
+                if (m.conversationId() == conversationId) {
+                    lot.add(m);
+                    it.remove();
+                }
+            }
+            return lot.isEmpty() || ecrireLot(lot);
+        }
+    }
+
+    @PreDestroy
+    public void arreter() {
+        if (active) vider();
+        if (!file.isEmpty()) log.error("Arrêt : {} message(s) de chat non persisté(s) ni diffusé(s)", file.size());
+    }
+
+    private boolean ecrireLot(List<MessageEnAttente> lot) {
+        try {
+            inserer(lot);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Lot de {} message(s) de chat rejeté, écriture message par message", lot.size(), e);
+            return isoler(lot);
+        } catch (DataAccessException | TransactionException e) {
+            log.error("Écriture d’un lot de {} message(s) de chat en échec", lot.size(), e);
+            relancer(lot);
+            return false;
+        }
+        publier(lot);
+        return true;
+    }
+
+    /* Une ligne rejetée ne doit pas emporter le reste du lot. */
+    private boolean isoler(List<MessageEnAttente> lot) {
+        List<MessageEnAttente> ecrits = new ArrayList<>();
+        List<MessageEnAttente> rejetes = new ArrayList<>();
+        for (int i = 0; i < lot.size(); i++) {
+            MessageEnAttente m = lot.get(i);
+            try {
+                inserer(List.of(m));
+                ecrits.add(m);
+            } catch (DataIntegrityViolationException e) {
+                // Définitif : inutile de le retenter
+                log.error("Message de chat #{} rejeté par la base, abandonné", m.id(), e);
+                rejetes.add(m);
+            } catch (DataAccessException | TransactionException e) {
+                log.error("Écriture du message de chat #{} en échec", m.id(), e);
+                publier(ecrits);
+                accuser(rejetes, ChatAckDto.ECHEC);
+                relancer(lot.subList(i, lot.size()));
+                return false;
+            }
+        }
+        publier(ecrits);
+        accuser(rejetes, ChatAckDto.ECHEC);
+        return true;
+    }
+
+    private void inserer(List<MessageEnAttente> lot) {
+        Map<Long, List<MessageEnAttente>> parConversation = lot.stream()
+                .collect(Collectors.groupingBy(MessageEnAttente::conversationId,
+                                               LinkedHashMap::new, Collectors.toList()));
+        tx.executeWithoutResult(status -> {
+            jdbc.batchUpdate(INSERT_MESSAGE, lot, lot.size(), (ps, m) -> {
+                ps.setLong(1, m.id());
+                ps.setLong(2, m.conversationId());
+                ps.setLong(3, m.senderId());
+                ps.setLong(4, m.receiverId());
+                ps.setString(5, m.content());
+                ps.setString(6, m.type().name());
+                ps.setString(7, m.fileUrl());
+                ps.setString(8, m.fileType());
+                ps.setTimestamp(9, Timestamp.valueOf(m.sentAt()));
+            });
+
+            List<List<MessageEnAttente>> groupes = new ArrayList<>(parConversation.values());
+            jdbc.batchUpdate(UPDATE_SNAPSHOT, groupes, groupes.size(), (ps, msgs) -> {
+                MessageEnAttente dernier = msgs.stream().max(PLUS_RECENT).orElseThrow();
+                Timestamp at = Timestamp.valueOf(dernier.sentAt());
+                int pourClient = (int) msgs.stream().filter(MessageEnAttente::receiverIsClient).count();
+                ps.setTimestamp(1, at);
+                ps.setString(2, dernier.type().name());
+                ps.setTimestamp(3, at);
+                ps.setString(4, dernier.content());
+                ps.setTimestamp(5, at);
+                ps.setInt(6, pourClient);
+                ps.setInt(7, msgs.size() - pourClient);
+                ps.setLong(8, dernier.conversationId());
+            });
+        });
+    }
+
+    private void relancer(List<MessageEnAttente> lot) {
+        List<MessageEnAttente> abandonnes = new ArrayList<>();
+        // Parcours à rebours : remis en tête, les messages gardent leur ordre devant les plus récents
+        for (int i = lot.size() - 1; i >= 0; i--) {
+            MessageEnAttente r = lot.get(i).retente();
+            if (r.tentatives() >= TENTATIVES_MAX) abandonnes.add(0, r);
+            else file.addFirst(r);
+        }
+        if (!abandonnes.isEmpty()) {
+            log.error("{} message(s) de chat abandonné(s) après {} tentatives", abandonnes.size(), TENTATIVES_MAX);
+            accuser(abandonnes, ChatAckDto.ECHEC);
+        }
+    }
+
+    /* Lot commité : diffusion (mêmes pushs que le mode synchrone), puis accusé PERSISTE. */
+    private void publier(List<MessageEnAttente> ecrits) {
+        Map<Map.Entry<String, Long>, Integer> nonLus = new LinkedHashMap<>();
+        for (MessageEnAttente m : ecrits) {
+            ChatMessageResponse resp = reponse(m);
+            broker.convertAndSend("/topic/conversations/" + m.conversationId(), resp);
+            broker.convertAndSendToUser(m.receiverEmail(), "/queue/messages", resp);
+            nonLus.merge(Map.entry(m.receiverEmail(), m.conversationId()), 1, Integer::sum);
+        }
+        nonLus.forEach((cle, n) -> broker.convertAndSendToUser(cle.getKey(), "/queue/unread",
+                new UnreadDeltaDto(cle.getValue(), n)));
+        accuser(ecrits, ChatAckDto.PERSISTE);
+    }
+
+    /* Un accusé par expéditeur et par conversation */
+    private void accuser(List<MessageEnAttente> messages, String statut) {
+        Map<Map.Entry<String, Long>, List<Long>> parExpediteur = new LinkedHashMap<>();
+        for (MessageEnAttente m : messages) {
+            parExpediteur.computeIfAbsent(Map.entry(m.senderEmail(), m.conversationId()),
+                                          k -> new ArrayList<>()).add(m.id());
+        }
+        parExpediteur.forEach((cle, ids) -> broker.convertAndSendToUser(cle.getKey(), "/queue/persisted",
+                new ChatAckDto(cle.getValue(), ids, statut)));
+    }
+}
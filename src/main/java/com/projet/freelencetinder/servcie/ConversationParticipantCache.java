@@ -0,0 +1,105 @@
+package com.projet.freelencetinder.servcie;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.projet.freelencetinder.models.Conversation;
+import com.projet.freelencetinder.repository.ConversationRepository;
+import com.projet.freelencetinder.repository.ConversationRepository.ParticipantsLigne;
+
+/**
+ * Participants des conversations (ids + emails) pour l’autorisation du chat et la
+ * résolution du destinataire, sans charger la conversation ni ses utilisateurs.
+ *
+ * Les participants d’une conversation ne changent jamais, leurs emails (principal
+ * WebSocket) si. Un changement d’email invalide immédiatement les entrées du nœud
+ * qui l’a traité ; les autres nœuds (plusieurs instances derrière le relais STOMP)
+ * n’en sont pas avertis, leurs entrées expirent donc après app.chat.participants.ttl-ms.
+ * Taille bornée (LRU) ; une entrée absente ou expirée est relue par une projection.
+ */
+@Component
+public class ConversationParticipantCache {
+
+    /** Participants d’une conversation. */
+    public record Participants(Long clientId, Long freelanceId, String clientEmail, String freelanceEmail) {
+
+        public boolean contient(Long userId) {
+            return clientId.equals(userId) || freelanceId.equals(userId);
+        }
+
+        public boolean estClient(Long userId) {
+            return clientId.equals(userId);
+        }
+
+        public Long autreId(Long userId)        { return estClient(userId) ? freelanceId : clientId; }
+        public String email(Long userId)        { return estClient(userId) ? clientEmail : freelanceEmail; }
+        public String autreEmail(Long userId)   { return estClient(userId) ? freelanceEmail : clientEmail; }
+    }
+
+    /** Publié quand l’email d’un utilisateur change. */
+    public record UtilisateurEmailEvent(Long utilisateurId) {}
+
+    private record Entree(Participants participants, long expireA) {}
+
+    private final ConversationRepository conversationRepo;
+    private final long ttlMs;
+
+    /** conversationId -> participants, en ordre d’accès (LRU). Toujours manipulé sous verrou. */
+    private final LinkedHashMap<Long, Entree> entrees;
+
+    public ConversationParticipantCache(ConversationRepository conversationRepo,
+                                        @Value("${app.chat.participants.max:10000}") int max,
+                                        @Value("${app.chat.participants.ttl-ms:60000}") long ttlMs) {
+        this.conversationRepo = conversationRepo;
+        this.ttlMs = ttlMs;
+        this.entrees = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entree> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    /**
+     * Participants de la conversation (chargés puis mémorisés si absents).
+     * @throws IllegalArgumentException si la conversation n’existe pas
+     */
+    public Participants get(Long conversationId) {
+        Entree e;
+        synchronized (entrees) {
+            e = entrees.get(conversationId);
+        }
+        if (e != null && e.expireA() > System.currentTimeMillis()) return e.participants();
+
+        ParticipantsLigne l = conversationRepo.findParticipantsById(conversationId)
+            .orElseThrow(() -> new IllegalArgumentException("Conversation inexistante"));
+        Participants p = new Participants(l.getClientId(), l.getFreelanceId(), l.getClientEmail(), l.getFreelanceEmail());
+        memoriser(conversationId, p);
+        return p;
+    }
+
+    /** Mémorise les participants d’une conversation dont les utilisateurs sont déjà chargés. */
+    public void enregistrer(Conversation c) {
+        memoriser(c.getId(), new Participants(c.getClient().getId(), c.getFreelance().getId(),
+                                              c.getClient().getEmail(), c.getFreelance().getEmail()));
+    }
+
+    private void memoriser(Long conversationId, Participants p) {
+        Entree e = new Entree(p, System.currentTimeMillis() + ttlMs);
+        synchronized (entrees) {
+            entrees.put(conversationId, e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmailModifie(UtilisateurEmailEvent e) {
+        synchronized (entrees) {
+            entrees.values().removeIf(en -> en.participants().contient(e.utilisateurId()));
+        }
+    }
+}
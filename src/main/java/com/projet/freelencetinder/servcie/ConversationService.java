@@ -5,10 +5,10 @@ import com.projet.freelencetinder.models.ChatMessage;
 import com.projet.freelencetinder.models.Conversation;
 import com.projet.freelencetinder.models.Mission;
 import com.projet.freelencetinder.models.Utilisateur;
-import com.projet.freelencetinder.repository.ChatMessageRepository;
 import com.projet.freelencetinder.repository.ConversationRepository;
 import com.projet.freelencetinder.repository.MissionRepository;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
+import org.hibernate.Hibernate;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -21,25 +21,27 @@ import java.util.stream.Collectors;
 public class ConversationService {
 
     private final ConversationRepository conversationRepo;
-    private final ChatMessageRepository messageRepo;
     private final MissionRepository missionRepo;
     private final UtilisateurRepository userRepo;
+    private final ConversationParticipantCache participants;
 
     public ConversationService(ConversationRepository conversationRepo,
-                               ChatMessageRepository messageRepo,
                                MissionRepository missionRepo,
-                               UtilisateurRepository userRepo) {
+                               UtilisateurRepository userRepo,
+                               ConversationParticipantCache participants) {
         this.conversationRepo = conversationRepo;
-        this.messageRepo = messageRepo;
         this.missionRepo = missionRepo;
         this.userRepo = userRepo;
+        this.participants = participants;
     }
 
     /* -------------------------------------------------------------------- */
+    /* Les participants sont mis en cache au passage quand les deux utilisateurs sont
+       déjà chargés (match) ; sinon le cache les relira par projection au premier besoin. */
     @Transactional
     public Conversation findOrCreate(Long missionId, Long clientId, Long freelanceId) {
 
-        return conversationRepo
+        Conversation conv = conversationRepo
             .findByMissionIdAndClientIdAndFreelanceId(missionId, clientId, freelanceId)
             .orElseGet(() -> {
                 Mission mission = missionRepo.getReferenceById(missionId);
@@ -60,23 +62,27 @@ public class ConversationService {
                         .orElseThrow();
                 }
             });
+        if (Hibernate.isInitialized(conv.getClient()) && Hibernate.isInitialized(conv.getFreelance())) {
+            participants.enregistrer(conv);
+        }
+        return conv;
     }
 
     /* -------------------------------------------------------------------- */
+    /* 1 requête par page quelle que soit sa taille : mission + participants en fetch join,
+       non-lus lus directement dans les compteurs dénormalisés de la conversation. */
     @Transactional(readOnly = true)
     public List<ConversationSummaryDto> getUserConversations(Long userId, int page, int size) {
 
-        return conversationRepo
-            .findByClientIdOrFreelanceIdOrderByLastMessageAtDesc(
-                userId, userId, PageRequest.of(page, size))
+        List<Conversation> conversations = conversationRepo
+            .findInbox(userId, PageRequest.of(page, size));
+
+        return conversations
             .stream()
             .map(c -> {
                 boolean isClient = c.getClient().getId().equals(userId);
                 Utilisateur other = isClient ? c.getFreelance() : c.getClient();
 
-                long unread = messageRepo
-                    .countByConversationIdAndReceiverIdAndSeenFalse(c.getId(), userId);
-
                 String preview = buildPreview(c.getLastMessageContent(), c.getLastMessageType());
 
                 return new ConversationSummaryDto(
@@ -89,12 +95,18 @@ public class ConversationService {
                     preview,
                     c.getLastMessageType() != null ? c.getLastMessageType().name() : null,
                     c.getLastMessageAt(),
-                    (int) unread
+                    isClient ? c.getUnreadForClient() : c.getUnreadForFreelance()
                 );
             })
             .collect(Collectors.toList());
     }
 
+    /* -------------------------------------------------------------------- */
+    @Transactional(readOnly = true)
+    public long getTotalUnread(Long userId) {
+        return conversationRepo.sumUnread(userId);
+    }
+
     /* -------------------------------------------------------------------- */
     private String buildPreview(String content, ChatMessage.MessageType type) {
         if (type == null) return null;
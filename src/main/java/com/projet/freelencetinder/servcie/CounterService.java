@@ -0,0 +1,287 @@
+package com.projet.freelencetinder.servcie;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.projet.freelencetinder.dto.CompteursDTO;
+import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.repository.UtilisateurRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Compteurs de swipes / likes / matches agrégés en mémoire.
+ *
+ * Chaque incrément tombe dans un LongAdder par (entité, compteur) : aucun accès
+ * base sur le chemin du swipe. Les deltas sont écrits périodiquement, en un
+ * batch JDBC d’un UPDATE atomique (x = x + ?) par ligne, sans toucher à la version.
+ *
+ * Lecture : seul {@link #compteursMission} / {@link #compteursUtilisateur} ajoutent
+ * aux valeurs en base les deltas pas encore écrits. Les entités Mission / Utilisateur
+ * et toutes les listes exposent les valeurs en base, en retard d’au plus
+ * app.counters.flush-ms ; les deltas ne sont jamais reportés sur une entité.
+ */
+@Service
+public class CounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(CounterService.class);
+
+    private static final String UPDATE_MISSION = """
+        UPDATE mission
+        SET swipes_recus = swipes_recus + ?,
+            likes_recus  = likes_recus + ?
+        WHERE id = ?
+        """;
+
+    /* GREATEST ignore NULL : dernier_swipe_at n’est modifié que si un swipe est en attente */
+    private static final String UPDATE_UTILISATEUR = """
+        UPDATE utilisateur
+        SET nombre_swipes    = nombre_swipes + ?,
+            likes_recus      = likes_recus + ?,
+            matches_obtenus  = matches_obtenus + ?,
+            dernier_swipe_at = GREATEST(dernier_swipe_at, ?)
+        WHERE id = ?
+        """;
+
+    /** Compteur et position de sa colonne dans l’UPDATE de sa table. */
+    public enum Compteur {
+        SWIPES_RECUS(true, 0),
+        LIKES_MISSION(true, 1),
+        NOMBRE_SWIPES(false, 0),
+        LIKES_RECUS(false, 1),
+        MATCHES_OBTENUS(false, 2);
+
+        private final boolean mission;
+        private final int index;
+
+        Compteur(boolean mission, int index) {
+            this.mission = mission;
+            this.index = index;
+        }
+    }
+
+    /** Incrément publié dans une transaction métier : compté seulement après son commit. */
+    public record Increment(Compteur compteur, Long id) {}
+
+    /** Deltas en attente d’une mission ou d’un utilisateur. */
+    private static final class Ligne {
+        final LongAdder[] ajouts;
+        /* Part déjà écrite en base ; modifiée par l’écrivain seul */
+        final AtomicLongArray ecrits;
+        volatile LocalDateTime dernierSwipe;
+        LocalDateTime dernierSwipeEcrit;
+        /* Passage d’écriture qui l’a retirée de la table active (écrivain seul) */
+        long retireeAuPassage;
+
+        Ligne(int taille) {
+            ajouts = new LongAdder[taille];
+            for (int i = 0; i < taille; i++) ajouts[i] = new LongAdder();
+            ecrits = new AtomicLongArray(taille);
+        }
+
+        long enAttente(int i) {
+            return ajouts[i].sum() - ecrits.get(i);
+        }
+
+        boolean aEcrire() {
+            for (int i = 0; i < ajouts.length; i++) if (enAttente(i) != 0) return true;
+            return dernierSwipe != dernierSwipeEcrit;
+        }
+    }
+
+    /** Deltas figés d’une ligne pour un passage d’écriture. */
+    private record Ecriture(Long id, Ligne ligne, long[] deltas, LocalDateTime dernierSwipe) {
+
+        void valider() {
+            for (int i = 0; i < deltas.length; i++) ligne.ecrits.addAndGet(i, deltas[i]);
+            if (dernierSwipe != null) ligne.dernierSwipeEcrit = dernierSwipe;
+        }
+    }
+
+    /** Lignes en attente d’une table. */
+    private static final class Table {
+        final String nom;
+        final String sql;
+        final int taille;
+        final boolean avecDernierSwipe;
+        final Map<Long, Ligne> lignes = new ConcurrentHashMap<>();
+        /* Lignes sans delta retirées de la table active : gardées au moins un passage
+           complet au cas où un incrément les aurait atteintes juste avant leur retrait
+           (délai de grâce), et toujours comptées en lecture. Une seule par id. */
+        final Map<Long, Ligne> retirees = new ConcurrentHashMap<>();
+
+        Table(String nom, String sql, int taille, boolean avecDernierSwipe) {
+            this.nom = nom;
+            this.sql = sql;
+            this.taille = taille;
+            this.avecDernierSwipe = avecDernierSwipe;
+        }
+
+        long enAttente(Long id, Compteur c) {
+            Ligne l = lignes.get(id);
+            Ligne r = retirees.get(id);
+            return (l != null ? l.enAttente(c.index) : 0) + (r != null ? r.enAttente(c.index) : 0);
+        }
+
+        LocalDateTime dernierSwipe(Long id) {
+            Ligne l = lignes.get(id);
+            Ligne r = retirees.get(id);
+            LocalDateTime a = l != null ? l.dernierSwipe : null;
+            LocalDateTime b = r != null ? r.dernierSwipe : null;
+            if (a == null) return b;
+            return b != null && b.isAfter(a) ? b : a;
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final MissionRepository missionRepository;
+    private final UtilisateurRepository utilisateurRepository;
+    private final int tailleLot;
+
+    private final Table missions     = new Table("mission", UPDATE_MISSION, 2, false);
+    private final Table utilisateurs = new Table("utilisateur", UPDATE_UTILISATEUR, 3, true);
+
+    /** Un seul écrivain à la fois (tâche planifiée, arrêt). */
+    private final Object verrouEcriture = new Object();
+    private long passage;
+
+    public CounterService(JdbcTemplate jdbc,
+                          PlatformTransactionManager transactionManager,
+                          MissionRepository missionRepository,
+                          UtilisateurRepository utilisateurRepository,
+                          @Value("${app.counters.taille-lot:500}") int tailleLot) {
+        this.jdbc                  = jdbc;
+        this.tx                    = new TransactionTemplate(transactionManager);
+        this.missionRepository     = missionRepository;
+        this.utilisateurRepository = utilisateurRepository;
+        this.tailleLot             = tailleLot;
+    }
+
+    /* =============================================================
+       INCRÉMENTS
+       ============================================================= */
+    public void incrementer(Compteur compteur, Long id) {
+        Table t = compteur.mission ? missions : utilisateurs;
+        Ligne l = t.lignes.computeIfAbsent(id, k -> new Ligne(t.taille));
+        l.ajouts[compteur.index].increment();
+        if (compteur == Compteur.NOMBRE_SWIPES) l.dernierSwipe = LocalDateTime.now();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onIncrement(Increment i) {
+        incrementer(i.compteur(), i.id());
+    }
+
+    /* =============================================================
+       LECTURE (valeurs en base + deltas en attente, sans charger l’entité)
+       ============================================================= */
+    public CompteursDTO compteursMission(Long missionId) {
+        MissionRepository.CompteursLigne l = missionRepository.findCompteursById(missionId)
+            .orElseThrow(() -> new EntityNotFoundException("Mission introuvable avec l’id " + missionId));
+        CompteursDTO dto = new CompteursDTO();
+        dto.setId(missionId);
+        dto.setSwipesRecus(somme(l.getSwipesRecus(), missions, missionId, Compteur.SWIPES_RECUS));
+        dto.setLikesRecus(somme(l.getLikesRecus(), missions, missionId, Compteur.LIKES_MISSION));
+        return dto;
+    }
+
+    public CompteursDTO compteursUtilisateur(Long utilisateurId) {
+        UtilisateurRepository.CompteursLigne l = utilisateurRepository.findCompteursById(utilisateurId)
+            .orElseThrow(() -> new EntityNotFoundException("Utilisateur introuvable avec l'id " + utilisateurId));
+        CompteursDTO dto = new CompteursDTO();
+        dto.setId(utilisateurId);
+        dto.setNombreSwipes(somme(l.getNombreSwipes(), utilisateurs, utilisateurId, Compteur.NOMBRE_SWIPES));
+        dto.setLikesRecus(somme(l.getLikesRecus(), utilisateurs, utilisateurId, Compteur.LIKES_RECUS));
+        dto.setMatchesObtenus(somme(l.getMatchesObtenus(), utilisateurs, utilisateurId, Compteur.MATCHES_OBTENUS));
+        LocalDateTime enBase = l.getDernierSwipeAt();
+        LocalDateTime enAttente = utilisateurs.dernierSwipe(utilisateurId);
+        dto.setDernierSwipeAt(enAttente != null && (enBase == null || enAttente.isAfter(enBase)) ? enAttente : enBase);
+        return dto;
+    }
+
+    private static int somme(Integer enBase, Table t, Long id, Compteur c) {
+        return (enBase != null ? enBase : 0) + (int) t.enAttente(id, c);
+    }
+
+    /* =============================================================
+       ÉCRITURE PÉRIODIQUE
+       ============================================================= */
+    @Scheduled(fixedDelayString = "${app.counters.flush-ms:5000}")
+    public void ecrire() {
+        synchronized (verrouEcriture) {
+            passage++;
+            ecrireTable(missions);
+            ecrireTable(utilisateurs);
+        }
+    }
+
+    @PreDestroy
+    public void arreter() {
+        ecrire();
+    }
+
+    private void ecrireTable(Table t) {
+        List<Ecriture> lot = new ArrayList<>();
+
+        for (Map.Entry<Long, Ligne> e : t.retirees.entrySet()) {
+            Ligne l = e.getValue();
+            if (l.aEcrire()) lot.add(figer(e.getKey(), l));
+            else if (l.retireeAuPassage < passage) t.retirees.remove(e.getKey(), l);   // grâce écoulée
+        }
+        for (Map.Entry<Long, Ligne> e : t.lignes.entrySet()) {
+            Ligne l = e.getValue();
+            if (l.aEcrire()) {
+                lot.add(figer(e.getKey(), l));
+            } else if (!t.retirees.containsKey(e.getKey()) && t.lignes.remove(e.getKey(), l)) {
+                l.retireeAuPassage = passage;
+                t.retirees.put(e.getKey(), l);
+            }
+        }
+        if (lot.isEmpty()) return;
+
+        try {
+            tx.executeWithoutResult(status ->
+                jdbc.batchUpdate(t.sql, lot, tailleLot, (ps, e) -> {
+                    int p = 1;
+                    for (long d : e.deltas()) ps.setLong(p++, d);
+                    if (t.avecDernierSwipe) {
+                        ps.setTimestamp(p++, e.dernierSwipe() != null ? Timestamp.valueOf(e.dernierSwipe()) : null);
+                    }
+                    ps.setLong(p, e.id());
+                }));
+        } catch (DataAccessException | TransactionException ex) {
+            // Rien n’est validé : les deltas restent en attente pour le prochain passage
+            log.error("Écriture de {} compteur(s) {} en échec", lot.size(), t.nom, ex);
+            return;
+        }
+        lot.forEach(Ecriture::valider);
+    }
+
+    private static Ecriture figer(Long id, Ligne l) {
+        long[] deltas = new long[l.ajouts.length];
+        for (int i = 0; i < deltas.length; i++) deltas[i] = l.enAttente(i);
+        LocalDateTime at = l.dernierSwipe;
+        return new Ecriture(id, l, deltas, at != l.dernierSwipeEcrit ? at : null);
+    }
+}
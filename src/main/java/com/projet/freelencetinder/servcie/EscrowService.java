@@ -21,6 +21,7 @@ import com.projet.freelencetinder.mapper.TranchePaiementMapper;
 import com.projet.freelencetinder.models.*;
 import com.projet.freelencetinder.models.TranchePaiement.StatutTranche;
 import com.projet.freelencetinder.repository.*;
+import com.projet.freelencetinder.servcie.RealtimeDispatcher.Livraison;
 
 @Service
 public class EscrowService {
@@ -104,6 +105,7 @@ public class EscrowService {
             if (t.getStatut() == StatutTranche.EN_ATTENTE_PAIEMENT) {
                 t.setStatut(StatutTranche.FONDS_BLOQUES);
                 logEvent(t.getId(), "PAIEMENT_PAYEE", "CheckoutId=" + checkoutId);
+                notifierParticipants(t);
             }
         }
         else if ("CANCELLED".equalsIgnoreCase(status)) {
@@ -201,6 +203,7 @@ public class EscrowService {
         // MAJ statut & dates
         t.marquerVersementEffectue();
         logEvent(t.getId(), "CAPTURE_OK", "");
+        notifierParticipants(t);
 
         // Mise à jour solde freelance
         Utilisateur f = t.getFreelance();
@@ -225,6 +228,13 @@ public class EscrowService {
         publisher.publishEvent(new CapturePaiementEvent(trancheId));
     }
 
+    /* --------- Push temps réel (outbox, même transaction) --------- */
+    private void notifierParticipants(TranchePaiement t) {
+        TranchePaiementResponseDTO dto = mapper.toDto(t);
+        publisher.publishEvent(new Livraison(t.getClient().getEmail(), "/queue/paiements", dto));
+        publisher.publishEvent(new Livraison(t.getFreelance().getEmail(), "/queue/paiements", dto));
+    }
+
     /* --------- Audit helper --------- */
     private void logEvent(Long trancheId, String event, String details) {
         com.projet.freelencetinder.models.PaymentAudit a = new com.projet.freelencetinder.models.PaymentAudit();
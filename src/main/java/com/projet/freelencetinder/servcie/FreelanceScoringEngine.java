@@ -0,0 +1,98 @@
+package com.projet.freelencetinder.servcie;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import com.projet.freelencetinder.repository.UtilisateurRepository.FreelanceCandidat;
+import com.projet.freelencetinder.repository.UtilisateurRepository.FreelanceCandidatCompte;
+
+/**
+ * Moteur de scoring des freelances pour une mission (symétrique de MissionScoringEngine).
+ * Un seul passage sur le flux des candidats, top K conservé dans un tas min borné.
+ */
+@Component
+public class FreelanceScoringEngine {
+
+    /** Meilleur en premier ; à score égal, le compte le plus ancien (id le plus petit). */
+    private static final Comparator<FreelanceScore> MEILLEUR_D_ABORD =
+            Comparator.comparingInt(FreelanceScore::score).reversed()
+                      .thenComparing(fs -> fs.candidat().getId());
+
+    /* =============================================================
+       TOP K
+       ============================================================= */
+    /**
+     * @param communes nombre de compétences communes d’un candidat avec la mission
+     *                 (intersection de SkillVector, ou compte SQL en parcours complet)
+     */
+    public <C extends FreelanceCandidat> List<FreelanceScore> topK(Stream<C> candidats,
+                                                                   BigDecimal budget,
+                                                                   ToIntFunction<? super C> communes,
+                                                                   int k) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Tête du tas = moins bon des K retenus
+        PriorityQueue<FreelanceScore> tas = new PriorityQueue<>(k + 1, MEILLEUR_D_ABORD.reversed());
+
+        candidats.forEach(c -> {
+            int matched = communes.applyAsInt(c);
+            FreelanceScore fs = new FreelanceScore(c, score(c, matched, budget, now), matched);
+            if (tas.size() < k) {
+                tas.offer(fs);
+            } else if (MEILLEUR_D_ABORD.compare(fs, tas.peek()) < 0) {
+                tas.poll();
+                tas.offer(fs);
+            }
+        });
+
+        List<FreelanceScore> top = new ArrayList<>(tas);
+        top.sort(MEILLEUR_D_ABORD);
+        return top;
+    }
+
+    /* =============================================================
+       SCORE
+       ============================================================= */
+    public int score(FreelanceCandidat c,
+                     int competencesCommunes,
+                     BigDecimal budget,
+                     LocalDateTime now) {
+        int score = 0;
+        score += competencesCommunes * 4;
+        if (c.getNoteMoyenne() != null) score += (int) Math.round(c.getNoteMoyenne() * 2); // 0..10
+        if (c.getTarifHoraire() == null
+                || (budget != null && budget.doubleValue() >= c.getTarifHoraire())) {
+            score += 2;
+        }
+        if (c.getDisponibilite() != null) {
+            score += switch (c.getDisponibilite()) {
+                case TEMPS_PLEIN   -> 3;
+                case TEMPS_PARTIEL -> 2;
+                case PONCTUEL      -> 1;
+                case INDISPONIBLE  -> -5;
+            };
+        }
+        // Activité récente : un freelance qui swipe encore répondra plus vite
+        if (c.getDernierSwipeAt() != null) {
+            long joursInactif = ChronoUnit.DAYS.between(c.getDernierSwipeAt(), now);
+            score += (int) Math.max(0, 14 - joursInactif);
+        }
+        return score;
+    }
+
+    public static int competencesCommunes(FreelanceCandidatCompte c) {
+        return c.getCompetencesCommunes() == null ? 0 : c.getCompetencesCommunes().intValue();
+    }
+
+    /** Candidat retenu, son score et ses compétences communes, calculés une seule fois. */
+    public record FreelanceScore(FreelanceCandidat candidat, int score, int matchedSkills) {}
+}
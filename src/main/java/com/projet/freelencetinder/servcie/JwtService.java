@@ -46,6 +46,12 @@ public class JwtService {
         return sub != null && sub.equals(user.getUsername());
     }
 
+    /** Claims d’un access token valide (signature, expiration) ; null sinon, refresh token compris. */
+    public Claims parseAccessToken(String token) {
+        Claims c = parseClaims(token);
+        return c == null || "refresh".equals(c.get("tokenType")) ? null : c;
+    }
+
     public String extractUsername(String token) {
         Claims c = parseClaims(token);
         return c == null ? null : c.getSubject();
@@ -0,0 +1,109 @@
+package com.projet.freelencetinder.servcie;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.repository.MissionRepository.MissionCandidat;
+import com.projet.freelencetinder.repository.MissionRepository.MissionCandidatCompte;
+
+/**
+ * Moteur de scoring des missions pour un freelance.
+ * Chaque candidat est scoré une seule fois et seul le top K est conservé
+ * (tas min borné) : mémoire O(K), un seul passage sur le flux.
+ */
+@Component
+public class MissionScoringEngine {
+
+    /** Meilleur en premier ; à score égal, la mission la plus ancienne (id le plus petit). */
+    private static final Comparator<MissionScore> MEILLEUR_D_ABORD =
+            Comparator.comparingInt(MissionScore::score).reversed()
+                      .thenComparing(ms -> ms.candidat().getId());
+
+    /* =============================================================
+       TOP K
+       ============================================================= */
+    /**
+     * @param communes nombre de compétences communes d’un candidat avec le profil
+     *                 (intersection de SkillVector, ou compte SQL en parcours complet)
+     */
+    public <C extends MissionCandidat> List<MissionScore> topK(Stream<C> candidats,
+                                                               Utilisateur freelance,
+                                                               Set<Mission.Categorie> categoriesPref,
+                                                               ToIntFunction<? super C> communes,
+                                                               int k) {
+        LocalDate     today = LocalDate.now();
+        LocalDateTime now   = LocalDateTime.now();
+
+        // Tête du tas = moins bon des K retenus
+        PriorityQueue<MissionScore> tas = new PriorityQueue<>(k + 1, MEILLEUR_D_ABORD.reversed());
+
+        candidats.forEach(c -> {
+            int matched = communes.applyAsInt(c);
+            // Mission sans compétence requise, ou au moins une compétence en commun
+            if (matched == 0 && competencesRequises(c) > 0) return;
+
+            MissionScore ms = new MissionScore(c, score(c, matched, freelance, categoriesPref, today, now), matched);
+            if (tas.size() < k) {
+                tas.offer(ms);
+            } else if (MEILLEUR_D_ABORD.compare(ms, tas.peek()) < 0) {
+                tas.poll();
+                tas.offer(ms);
+            }
+        });
+
+        List<MissionScore> top = new ArrayList<>(tas);
+        top.sort(MEILLEUR_D_ABORD);
+        return top;
+    }
+
+    /* =============================================================
+       SCORE
+       ============================================================= */
+    public int score(MissionCandidat c,
+                     int competencesCommunes,
+                     Utilisateur freelance,
+                     Set<Mission.Categorie> categoriesPref,
+                     LocalDate today,
+                     LocalDateTime now) {
+        int score = 0;
+        score += competencesCommunes * 4;
+        if (categoriesPref.contains(c.getCategorie())) score += 5;
+        if (freelance.getTarifHoraire() == null
+                || (c.getBudget() != null && c.getBudget().doubleValue() >= freelance.getTarifHoraire())) {
+            score += 2;
+        }
+        long ageDays = ChronoUnit.DAYS.between(c.getDatePublication(), now);
+        score += (int) Math.max(0, 21 - ageDays);
+        if (c.getDateLimiteCandidature() != null) {
+            long toDeadline = ChronoUnit.DAYS.between(today, c.getDateLimiteCandidature());
+            if (toDeadline <= 7 && toDeadline >= 0) score += 2;
+        }
+        return score;
+    }
+
+    public static int competencesCommunes(MissionCandidatCompte c) {
+        return c.getCompetencesCommunes() == null ? 0 : c.getCompetencesCommunes().intValue();
+    }
+
+    static int competencesRequises(MissionCandidat c) {
+        return c.getCompetencesRequises() == null ? 0 : c.getCompetencesRequises();
+    }
+
+    /** Candidat retenu, son score et ses compétences communes, calculés une seule fois. */
+    public record MissionScore(MissionCandidat candidat, int score, int matchedSkills) {
+
+        public int totalRequiredSkills() { return competencesRequises(candidat); }
+    }
+}
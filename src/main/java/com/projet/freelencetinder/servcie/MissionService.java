@@ -2,18 +2,34 @@ package com.projet.freelencetinder.servcie;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.projet.freelencetinder.config.MissionSearchSchema;
+import com.projet.freelencetinder.dto.ClientInfoDTO;
+import com.projet.freelencetinder.dto.CompteursDTO;
+import com.projet.freelencetinder.dto.CursorPage;
+import com.projet.freelencetinder.dto.MissionSearchResultDTO;
+import com.projet.freelencetinder.dto.MissionSummaryDTO;
 import com.projet.freelencetinder.models.Mission;
 import com.projet.freelencetinder.models.Mission.Statut;
 import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.models.Utilisateur.Langue;
 import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.repository.MissionRepository.MissionListe;
+import com.projet.freelencetinder.repository.MissionSearchRepository;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.SkillIndexService.MissionCompetencesEvent;
+import com.projet.freelencetinder.servcie.SwipeDeckService.Changement;
+import com.projet.freelencetinder.servcie.SwipeDeckService.MissionDisponibiliteEvent;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -26,12 +42,24 @@ public class MissionService {
 
     private final MissionRepository missionRepository;
     private final UtilisateurRepository utilisateurRepository;
+    private final MissionSearchRepository searchRepository;
+    private final MissionSearchSchema searchSchema;
+    private final CounterService counterService;
+    private final ApplicationEventPublisher publisher;
 
     @Autowired
     public MissionService(MissionRepository missionRepository,
-                          UtilisateurRepository utilisateurRepository) {
+                          UtilisateurRepository utilisateurRepository,
+                          MissionSearchRepository searchRepository,
+                          MissionSearchSchema searchSchema,
+                          CounterService counterService,
+                          ApplicationEventPublisher publisher) {
         this.missionRepository     = missionRepository;
         this.utilisateurRepository = utilisateurRepository;
+        this.searchRepository      = searchRepository;
+        this.searchSchema          = searchSchema;
+        this.counterService        = counterService;
+        this.publisher             = publisher;
     }
 
     /* ------------------------------------------------------------------
@@ -50,14 +78,11 @@ public class MissionService {
 
         if (mission.getBudget() == null) mission.setBudget(BigDecimal.ZERO);
 
-        return missionRepository.save(mission);
-    }
-
-    /* ------------------------------------------------------------------
-       2. Listing global (prototype) – à remplacer par pagination
-       ------------------------------------------------------------------ */
-    public List<Mission> getAllMissions() {
-        return missionRepository.findAll();
+        Mission saved = missionRepository.save(mission);
+        if (saved.estDisponiblePourSwipe()) {
+            publisher.publishEvent(new MissionDisponibiliteEvent(saved.getId(), Changement.PUBLIEE));
+        }
+        return saved;
     }
 
     /* ------------------------------------------------------------------
@@ -69,6 +94,88 @@ public class MissionService {
                         "Mission introuvable avec l’id " + id));
     }
 
+    /* Seule lecture à jour des compteurs : l’entité porte les valeurs en base */
+    public CompteursDTO getCompteurs(Long id) {
+        return counterService.compteursMission(id);
+    }
+
+    /* ------------------------------------------------------------------
+       2. Liste paginée (keyset : afterId = id de la dernière mission reçue)
+       ------------------------------------------------------------------ */
+    private static final int TAILLE_PAGE_MAX = 100;
+
+    @Transactional(readOnly = true)
+    public CursorPage<MissionSummaryDTO> getMissionsPage(Statut statut,
+                                                        Mission.Categorie categorie,
+                                                        BigDecimal budgetMin,
+                                                        BigDecimal budgetMax,
+                                                        LocalDate publieDepuis,
+                                                        LocalDate publieJusqua,
+                                                        Long afterId,
+                                                        int size) {
+        int taille = Math.max(1, Math.min(size, TAILLE_PAGE_MAX));
+        List<MissionListe> lignes = missionRepository.findPage(
+                statut, categorie, budgetMin, budgetMax,
+                publieDepuis != null ? publieDepuis.atStartOfDay() : null,
+                publieJusqua != null ? publieJusqua.plusDays(1).atStartOfDay() : null,   // borne incluse
+                afterId != null ? afterId : Long.MAX_VALUE,
+                PageRequest.of(0, taille + 1));
+
+        LocalDate today = LocalDate.now();
+        return CursorPage.of(lignes, taille, MissionListe::getId)
+                         .map(l -> toSummaryDTO(l, today));
+    }
+
+    private MissionSummaryDTO toSummaryDTO(MissionListe l, LocalDate today) {
+        MissionSummaryDTO dto = new MissionSummaryDTO();
+        dto.setId(l.getId());
+        dto.setTitre(l.getTitre());
+        dto.setBudget(l.getBudget());
+        dto.setDevise(l.getDevise());
+        dto.setCategorie(l.getCategorie());
+        dto.setStatut(l.getStatut());
+        dto.setModaliteTravail(l.getModaliteTravail());
+        dto.setDatePublication(l.getDatePublication());
+        dto.setDateLimiteCandidature(l.getDateLimiteCandidature());
+        dto.setDureeEstimeeJours(l.getDureeEstimeeJours());
+
+        boolean expired = l.getDateLimiteCandidature() != null && today.isAfter(l.getDateLimiteCandidature());
+        dto.setExpired(expired);
+        dto.setUrgent(!expired
+                && l.getDateLimiteCandidature() != null
+                && ChronoUnit.DAYS.between(today, l.getDateLimiteCandidature()) <= 3);
+
+        ClientInfoDTO client = new ClientInfoDTO();
+        client.setId(l.getClientId());
+        client.setNom(l.getClientNom());
+        client.setPrenom(l.getClientPrenom());
+        client.setPhotoUrl(l.getClientPhotoUrl());
+        client.setVille(l.getClientVille());
+        dto.setClient(client);
+        return dto;
+    }
+
+    /* ------------------------------------------------------------------
+       3 bis. Recherche plein texte (titre + description), triée par pertinence
+       ------------------------------------------------------------------ */
+    @Transactional(readOnly = true)
+    public Page<MissionSearchResultDTO> searchMissions(String q,
+                                                       Langue langue,
+                                                       Statut statut,
+                                                       Mission.Categorie categorie,
+                                                       int page,
+                                                       int size) {
+        if (q == null || q.isBlank()) {
+            throw new IllegalArgumentException("Le texte de recherche est requis");
+        }
+        if (!searchSchema.estDisponible()) {
+            throw new IllegalStateException("Recherche plein texte indisponible");
+        }
+        PageRequest pr = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, 100)));
+        return searchRepository.rechercher(q.trim(), langue != null ? langue : Langue.FR,
+                                           statut, categorie, pr);
+    }
+
     /* ------------------------------------------------------------------
        4. Mise à jour (client propriétaire)
        ------------------------------------------------------------------ */
@@ -79,6 +186,7 @@ public class MissionService {
         if (existing.getStatut() != Statut.EN_ATTENTE) {
             throw new IllegalStateException("La mission ne peut plus être modifiée (statut=" + existing.getStatut() + ")");
         }
+        boolean disponibleAvant = existing.estDisponiblePourSwipe();
 
         existing.setTitre(dto.getTitre());
         existing.setDescription(dto.getDescription());
@@ -95,7 +203,12 @@ public class MissionService {
         existing.setMediaUrls(dto.getMediaUrls());
         existing.setVideoBriefUrl(dto.getVideoBriefUrl());
 
-        return missionRepository.save(existing);
+        Mission saved = missionRepository.save(existing);
+        publishTransition(saved, disponibleAvant);
+        if (disponibleAvant && saved.estDisponiblePourSwipe()) {
+            publisher.publishEvent(new MissionCompetencesEvent(saved.getId()));
+        }
+        return saved;
     }
 
     /* ------------------------------------------------------------------
@@ -108,25 +221,29 @@ public class MissionService {
             throw new IllegalStateException("Impossible de supprimer une mission déjà engagée");
         }
         missionRepository.delete(m);
+        publisher.publishEvent(new MissionDisponibiliteEvent(id, Changement.RETIREE));
     }
 
     /* ------------------------------------------------------------------
        9. Missions d’un client
        ------------------------------------------------------------------ */
-    public List<Mission> getMissionsByClient(Long clientId) {
-        return missionRepository.findAll().stream()
-                .filter(m -> m.getClient() != null && m.getClient().getId().equals(clientId))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<Mission> getMissionsByClient(Long clientId, int page, int size) {
+        return missionRepository.findByClientId(clientId, pageRecentes(page, size));
     }
 
     /* ------------------------------------------------------------------
        10. Missions d’un freelance sélectionné
        ------------------------------------------------------------------ */
-    public List<Mission> getMissionsByFreelance(Long freelanceId) {
-        return missionRepository.findAll().stream()
-                .filter(m -> m.getFreelanceSelectionne() != null
-                        && m.getFreelanceSelectionne().getId().equals(freelanceId))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<Mission> getMissionsByFreelance(Long freelanceId, int page, int size) {
+        return missionRepository.findByFreelanceSelectionneId(freelanceId, pageRecentes(page, size));
+    }
+
+    /* Plus récentes d’abord (id décroissant, couvert par les index (fk, id)) */
+    private static PageRequest pageRecentes(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, TAILLE_PAGE_MAX)),
+                              Sort.by(Sort.Direction.DESC, "id"));
     }
 
     /* ------------------------------------------------------------------
@@ -160,9 +277,18 @@ public class MissionService {
         // Optionnel : vérifier que c’est bien un freelance
         // if (freelance.getTypeUtilisateur() != TypeUtilisateur.FREELANCE) { ... }
 
+        boolean disponibleAvant = mission.estDisponiblePourSwipe();
         mission.setFreelanceSelectionne(freelance);
         mission.setStatut(Statut.EN_COURS);
 
-        return missionRepository.save(mission);
+        Mission saved = missionRepository.save(mission);
+        publishTransition(saved, disponibleAvant);
+        return saved;
+    }
+
+    /* Notifie le deck de swipe si la mission entre / sort des missions swipables */
+    private void publishTransition(Mission m, boolean disponibleAvant) {
+        MissionDisponibiliteEvent evt = MissionDisponibiliteEvent.transition(m, disponibleAvant);
+        if (evt != null) publisher.publishEvent(evt);
     }
 }
\ No newline at end of file
@@ -3,7 +3,7 @@ package com.projet.freelencetinder.servcie;
 import java.time.LocalDateTime;
 import java.util.Map;
 
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
@@ -15,6 +15,7 @@ import com.projet.freelencetinder.models.Notification.*;
 
 import com.projet.freelencetinder.repository.NotificationRepository;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.RealtimeDispatcher.Livraison;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -23,14 +24,14 @@ public class NotificationService {
 
     private final NotificationRepository repo;
     private final UtilisateurRepository  userRepo;
-    private final SimpMessagingTemplate  broker;
+    private final ApplicationEventPublisher publisher;
 
     public NotificationService(NotificationRepository repo,
                                UtilisateurRepository userRepo,
-                               SimpMessagingTemplate broker) {
-        this.repo     = repo;
-        this.userRepo = userRepo;
-        this.broker   = broker;
+                               ApplicationEventPublisher publisher) {
+        this.repo      = repo;
+        this.userRepo  = userRepo;
+        this.publisher = publisher;
     }
 
     /* =============================================================== */
@@ -72,11 +73,12 @@ public class NotificationService {
         dto.setCreatedAt(n.getCreatedAt());
         dto.setData(n.getData());
 
-        broker.convertAndSendToUser(
+        // Envoi après commit, hors transaction (RealtimeDispatcher)
+        publisher.publishEvent(new Livraison(
             n.getRecipient().getEmail(),
             "/queue/notifications",
             dto
-        );
+        ));
 
         return n;
     }
@@ -0,0 +1,215 @@
+package com.projet.freelencetinder.servcie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projet.freelencetinder.config.WebSocketProperties;
+import com.projet.freelencetinder.models.OutboxEvent;
+import com.projet.freelencetinder.repository.OutboxEventRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushs temps réel au moins une fois (matches, notifications, paiements) via une
+ * outbox transactionnelle (table outbox_event).
+ *
+ * Le chat n’y passe pas : ses pushs sont envoyés directement au broker après le
+ * commit (ChatMessageService, ou celui du lot en mode pipeline), au plus une fois ;
+ * un push manqué se rattrape par l’historique et GET /api/conversations.
+ *
+ * Les services publient une {@link Livraison} ou une {@link Diffusion} : la ligne
+ * d’outbox est écrite juste avant le commit, dans la même transaction que les
+ * données métier ; rien n’est envoyé si elle est annulée et rien n’est perdu
+ * si le nœud s’arrête avant l’envoi.
+ *
+ * Relais : après chaque commit (et périodiquement, pour les lignes laissées par
+ * un autre nœud), les lignes sont lues par partition. Une partition n’est relayée
+ * que par le nœud qui obtient son verrou consultatif (pas de double envoi
+ * concurrent) ; les lignes sont prises en FOR UPDATE SKIP LOCKED puis
+ * supprimées dans la transaction qui les a envoyées (au moins une fois).
+ *
+ * Ordre : par partition, dans l’ordre des id. Un id IDENTITY est attribué à
+ * l’INSERT, pas au commit : deux transactions concurrentes peuvent être relayées
+ * dans l’ordre inverse de leurs commits. Aucun ordre n’est donc garanti entre
+ * pushs de transactions différentes ; les clients s’appuient sur sentAt / id du
+ * message, pas sur l’ordre d’arrivée.
+ *
+ * Plusieurs nœuds : le nœud qui relaie une ligne n’est pas forcément celui qui
+ * tient la session du destinataire. Avec le broker simple (en mémoire), l’envoi
+ * n’atteint que les sessions locales et la ligne est supprimée quand même : la
+ * livraison « au moins une fois » ne vaut que sur un seul nœud. D’où
+ * app.realtime.outbox.multi-noeud=true, refusé au démarrage sans
+ * app.websocket.broker.relay=true (broker externe, vu par tous les nœuds).
+ */
+@Service
+public class RealtimeDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(RealtimeDispatcher.class);
+
+    /** Espace des verrous consultatifs de l’outbox (premier entier de pg_try_advisory_xact_lock). */
+    private static final int VERROU_OUTBOX = 0x0B0C;
+    private static final int SHARDS        = 16;
+
+    /** Message à pousser sur /user/{email}{destination}. */
+    public record Livraison(String email, String destination, Object payload) {}
+
+    /** Message à diffuser sur un topic. */
+    public record Diffusion(String destination, Object payload) {}
+
+    private final OutboxEventRepository outboxRepo;
+    private final SimpMessagingTemplate broker;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate tx;
+    private final ExecutorService executor;
+    private final int tailleLot;
+
+    /* Un seul relais à la fois par nœud ; une demande reçue pendant un relais en relance un. */
+    private final AtomicBoolean demande = new AtomicBoolean();
+    private final AtomicBoolean actif   = new AtomicBoolean();
+
+    public RealtimeDispatcher(OutboxEventRepository outboxRepo,
+                              SimpMessagingTemplate broker,
+                              ObjectMapper mapper,
+                              PlatformTransactionManager transactionManager,
+                              WebSocketProperties wsProps,
+                              @Value("${app.realtime.outbox.taille-lot:200}") int tailleLot,
+                              @Value("${app.realtime.outbox.multi-noeud:false}") boolean multiNoeud) {
+        if (multiNoeud && !wsProps.getBroker().isRelay()) {
+            // Broker simple : un push relayé par un autre nœud serait supprimé sans avoir été livré
+            throw new IllegalStateException(
+                "app.realtime.outbox.multi-noeud=true exige app.websocket.broker.relay=true");
+        }
+        this.outboxRepo = outboxRepo;
+        this.broker     = broker;
+        this.mapper     = mapper;
+        this.tx         = new TransactionTemplate(transactionManager);
+        this.tailleLot  = tailleLot;
+        this.executor   = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("realtime-outbox").daemon(true).factory());
+    }
+
+    /* =============================================================
+       ÉCRITURE (dans la transaction de l’appelant)
+       ============================================================= */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onLivraison(Livraison l) {
+        ecrire(l.email(), l.destination(), l.payload(), l.email());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onDiffusion(Diffusion d) {
+        ecrire(null, d.destination(), d.payload(), d.destination());
+    }
+
+    private void ecrire(String email, String destination, Object payload, String cleShard) {
+        String json;
+        try {
+            json = mapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payload temps réel non sérialisable: " + destination, e);
+        }
+        outboxRepo.save(new OutboxEvent(Math.floorMod(cleShard.hashCode(), SHARDS), email, destination, json));
+        // Hors transaction (fallbackExecution) : la ligne est déjà commitée
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) declencher();
+    }
+
+    /* =============================================================
+       RELAIS
+       ============================================================= */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void apresCommit(Livraison l) {
+        declencher();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void apresCommit(Diffusion d) {
+        declencher();
+    }
+
+    /** Filet de sécurité : lignes d’un nœud arrêté ou d’un relais en échec. */
+    @Scheduled(fixedDelayString = "${app.realtime.outbox.poll-ms:1000}")
+    public void sonder() {
+        declencher();
+    }
+
+    private void declencher() {
+        demande.set(true);
+        if (actif.compareAndSet(false, true)) executor.execute(this::boucle);
+    }
+
+    private void boucle() {
+        try {
+            while (demande.getAndSet(false)) relayer();
+        } catch (DataAccessException | TransactionException e) {
+            log.error("Relais de l’outbox temps réel en échec", e);
+        } finally {
+            actif.set(false);
+        }
+        // Demande arrivée entre la dernière passe et la libération
+        if (demande.get() && actif.compareAndSet(false, true)) executor.execute(this::boucle);
+    }
+
+    private void relayer() {
+        for (Integer shard : outboxRepo.findShardsEnAttente()) {
+            boolean plein = true;
+            while (plein) {
+                Integer envoyes = tx.execute(status -> relayerLot(shard));
+                plein = envoyes != null && envoyes == tailleLot;
+            }
+        }
+    }
+
+    /** Envoie puis supprime un lot de la partition ; 0 si un autre nœud la relaie. */
+    private int relayerLot(int shard) {
+        if (!outboxRepo.tryLockShard(VERROU_OUTBOX, shard)) return 0;
+
+        List<OutboxEvent> lot = outboxRepo.lockLot(shard, tailleLot);
+        List<OutboxEvent> traites = new ArrayList<>(lot.size());
+        for (OutboxEvent e : lot) {
+            try {
+                JsonNode payload = mapper.readTree(e.getPayload());
+                if (e.getRecipient() != null) {
+                    broker.convertAndSendToUser(e.getRecipient(), e.getDestination(), payload);
+                } else {
+                    broker.convertAndSend(e.getDestination(), payload);
+                }
+            } catch (JsonProcessingException ex) {
+                // Payload illisible : il ne passera jamais, la ligne est abandonnée
+                log.warn("Push {} (outbox #{}) illisible, abandonné", e.getDestination(), e.getId(), ex);
+            } catch (MessagingException ex) {
+                // Broker indisponible : la suite reste en base pour le prochain passage
+                log.warn("Broker indisponible, relais de la partition {} suspendu", shard, ex);
+                break;
+            }
+            traites.add(e);
+        }
+        outboxRepo.deleteAllInBatch(traites);
+        return traites.size() == lot.size() ? lot.size() : 0;
+    }
+
+    @PreDestroy
+    public void arreter() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,204 @@
+package com.projet.freelencetinder.servcie;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Dictionnaire des compétences : chaque nom normalisé reçoit un identifiant
+ * entier stable (0, 1, 2…) pour la durée de vie de l’application.
+ *
+ * Les compétences d’un freelance ou d’une mission deviennent alors un
+ * {@link SkillVector} (ids triés, ou bitset si les ids sont petits) et le nombre
+ * de compétences communes se calcule par intersection, sans hachage ni allocation.
+ */
+@Component
+public class SkillDictionary {
+
+    /* Espaces de début et de fin seulement, comme TRIM de PostgreSQL */
+    private static final Pattern BORDS = Pattern.compile("^ +| +$");
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> noms = new CopyOnWriteArrayList<>();
+
+    /* =============================================================
+       INTERNEMENT
+       ============================================================= */
+    /** Identifiant de la compétence, attribué au premier usage ; -1 si vide. */
+    public int interner(String competence) {
+        String n = normaliser(competence);
+        if (n == null || n.isEmpty()) return -1;
+        Integer id = ids.get(n);
+        if (id != null) return id;
+        synchronized (noms) {
+            return ids.computeIfAbsent(n, k -> {
+                noms.add(k);
+                return noms.size() - 1;
+            });
+        }
+    }
+
+    /** Identifiant sans création ; -1 si la compétence n’a jamais été vue. */
+    public int chercher(String competence) {
+        String n = normaliser(competence);
+        if (n == null) return -1;
+        return ids.getOrDefault(n, -1);
+    }
+
+    public String nom(int id) {
+        return noms.get(id);
+    }
+
+    public int taille() {
+        return noms.size();
+    }
+
+    /** Vecteur d’une mission / d’un profil indexé : les compétences inconnues sont internées. */
+    public SkillVector vecteur(Collection<String> competences) {
+        return construire(competences, true);
+    }
+
+    /** Vecteur pour une requête : une compétence jamais vue ne peut rien recouper, elle est ignorée. */
+    public SkillVector vecteurConnu(Collection<String> competences) {
+        return construire(competences, false);
+    }
+
+    private SkillVector construire(Collection<String> competences, boolean interner) {
+        if (competences == null || competences.isEmpty()) return SkillVector.VIDE;
+        int[] bits = new int[competences.size()];
+        int n = 0;
+        for (String c : competences) {
+            int id = interner ? interner(c) : chercher(c);
+            if (id >= 0) bits[n++] = id;
+        }
+        return SkillVector.of(Arrays.copyOf(bits, n));
+    }
+
+    /* Même règle que LOWER(TRIM(c)) des requêtes SQL de repli (MissionRepository,
+       UtilisateurRepository), qui comptent aussi en DISTINCT et sans valeur vide :
+       les deux chemins recoupent et comptent les mêmes compétences. */
+    public static String normaliser(String competence) {
+        return competence == null ? null
+                : BORDS.matcher(competence).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /** Compétences normalisées pour les requêtes SQL ; {""} si aucune (liste IN jamais vide). */
+    public static Set<String> normaliser(Collection<String> competences) {
+        if (competences == null || competences.isEmpty()) return Set.of("");
+        return competences.stream()
+                .filter(Objects::nonNull)
+                .map(SkillDictionary::normaliser)
+                .collect(Collectors.toSet());
+    }
+
+    /* =============================================================
+       VECTEUR
+       ============================================================= */
+    /**
+     * Ensemble immuable d’identifiants de compétences. Taille proportionnelle au
+     * nombre de compétences, pas au plus grand id du dictionnaire : ids triés
+     * (intersection par fusion), ou mots de 64 bits quand le bitset n’est pas plus
+     * grand (intersection par popcount).
+     */
+    public static final class SkillVector {
+
+        public static final SkillVector VIDE = new SkillVector(new int[0], null, 0);
+
+        private final int[]  ids;          // triés, sans doublon ; null en bitset
+        private final long[] mots;         // null en représentation creuse
+        private final int    cardinalite;
+
+        private SkillVector(int[] ids, long[] mots, int cardinalite) {
+            this.ids         = ids;
+            this.mots        = mots;
+            this.cardinalite = cardinalite;
+        }
+
+        public static SkillVector of(int... ids) {
+            if (ids.length == 0) return VIDE;
+            int[] tries = ids.clone();
+            Arrays.sort(tries);
+            int n = 1;
+            for (int i = 1; i < tries.length; i++) {
+                if (tries[i] != tries[n - 1]) tries[n++] = tries[i];
+            }
+            tries = Arrays.copyOf(tries, n);
+
+            // Bitset si ses mots ne pèsent pas plus que les ids (2 ids par mot)
+            int nbMots = (tries[n - 1] >>> 6) + 1;
+            if (nbMots * 2 > n) return new SkillVector(tries, null, n);
+            long[] mots = new long[nbMots];
+            for (int id : tries) mots[id >>> 6] |= 1L << id;
+            return new SkillVector(null, mots, n);
+        }
+
+        /** Nombre de compétences communes. */
+        public int intersection(SkillVector autre) {
+            if (autre == null) return 0;
+            if (mots != null && autre.mots != null) return popcount(mots, autre.mots);
+            if (mots != null) return sonde(autre.ids, mots);
+            if (autre.mots != null) return sonde(ids, autre.mots);
+            return fusion(ids, autre.ids);
+        }
+
+        private static int popcount(long[] a, long[] b) {
+            int n = Math.min(a.length, b.length), total = 0;
+            for (int i = 0; i < n; i++) total += Long.bitCount(a[i] & b[i]);
+            return total;
+        }
+
+        private static int sonde(int[] ids, long[] mots) {
+            int total = 0;
+            for (int id : ids) {
+                int i = id >>> 6;
+                if (i >= mots.length) break;               // ids triés : les suivants aussi
+                if ((mots[i] & (1L << id)) != 0) total++;
+            }
+            return total;
+        }
+
+        private static int fusion(int[] a, int[] b) {
+            int i = 0, j = 0, total = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) i++;
+                else if (a[i] > b[j]) j++;
+                else { total++; i++; j++; }
+            }
+            return total;
+        }
+
+        public int cardinalite() {
+            return cardinalite;
+        }
+
+        public boolean estVide() {
+            return cardinalite == 0;
+        }
+
+        /** Ids dans l’ordre croissant. */
+        public void forEach(IntConsumer action) {
+            if (ids != null) {
+                for (int id : ids) action.accept(id);
+                return;
+            }
+            for (int i = 0; i < mots.length; i++) {
+                long m = mots[i];
+                while (m != 0) {
+                    action.accept((i << 6) + Long.numberOfTrailingZeros(m));
+                    m &= m - 1;
+                }
+            }
+        }
+    }
+}
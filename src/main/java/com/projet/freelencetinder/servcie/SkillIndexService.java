@@ -0,0 +1,288 @@
+package com.projet.freelencetinder.servcie;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Mission.Statut;
+import com.projet.freelencetinder.models.Utilisateur.TypeUtilisateur;
+import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.SkillDictionary.SkillVector;
+import com.projet.freelencetinder.servcie.SwipeDeckService.MissionDisponibiliteEvent;
+
+/**
+ * Index inversé des compétences en mémoire :
+ * compétence (id du {@link SkillDictionary}) -> missions ouvertes,
+ * compétence -> freelances actifs, et le {@link SkillVector} de chaque entrée.
+ *
+ * Les recommandations partent des listes de la compétence du freelance au lieu
+ * de parcourir toutes les missions ouvertes. L’index est chargé au démarrage,
+ * maintenu par événements après commit et reconstruit périodiquement (missions
+ * expirées, événements perdus). Il ne sert qu’à présélectionner : les
+ * candidats restent revalidés en base (statut, verrou, expiration, swipes).
+ */
+@Service
+public class SkillIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SkillIndexService.class);
+
+    private final MissionRepository     missionRepository;
+    private final UtilisateurRepository utilisateurRepository;
+    private final SkillDictionary       dictionnaire;
+
+    private volatile Index   index = new Index();
+    private volatile boolean pret  = false;
+
+    /* Mises à jour reçues pendant une reconstruction, rejouées sur le nouvel index */
+    private final Object verrou = new Object();
+    private List<Consumer<Index>> journal;
+    private final AtomicBoolean enReconstruction = new AtomicBoolean(false);
+
+    public SkillIndexService(MissionRepository missionRepository,
+                             UtilisateurRepository utilisateurRepository,
+                             SkillDictionary dictionnaire) {
+        this.missionRepository     = missionRepository;
+        this.utilisateurRepository = utilisateurRepository;
+        this.dictionnaire          = dictionnaire;
+    }
+
+    /* =============================================================
+       LECTURE
+       ============================================================= */
+    /** Faux tant que le premier chargement n’est pas terminé : l’appelant doit alors tout parcourir. */
+    public boolean estPret() {
+        return pret;
+    }
+
+    /** Vecteur de compétences d’un profil ou d’une requête (compétences inconnues ignorées). */
+    public SkillVector vecteur(Collection<String> competences) {
+        return dictionnaire.vecteurConnu(competences);
+    }
+
+    /**
+     * Index courant, à garder pour toute une requête : candidats et vecteurs sont
+     * lus dans le même index même si une reconstruction le remplace entre-temps.
+     */
+    public Lecture lecture() {
+        return new Lecture(index);
+    }
+
+    /** Vue d’un index pour une requête (voir {@link #lecture()}). */
+    public static final class Lecture {
+
+        private final Index idx;
+
+        private Lecture(Index idx) {
+            this.idx = idx;
+        }
+
+        /** Vecteur indexé d’une mission ouverte ; null si elle n’est pas (ou plus) dans l’index. */
+        public SkillVector vecteurMission(Long missionId) {
+            return idx.vecteursMission.get(missionId);
+        }
+
+        /** Vecteur indexé d’un freelance actif ; null s’il n’a aucune compétence indexée. */
+        public SkillVector vecteurFreelance(Long freelanceId) {
+            return idx.vecteursFreelance.get(freelanceId);
+        }
+
+        /** Missions ouvertes partageant au moins une compétence, plus celles sans compétence requise. */
+        public Set<Long> missionsCandidates(SkillVector profil) {
+            Set<Long> ids = new HashSet<>(idx.missionsSansCompetence);
+            profil.forEach(c -> {
+                Set<Long> liste = idx.missions.get(c);
+                if (liste != null) ids.addAll(liste);
+            });
+            return ids;
+        }
+
+        /** Freelances actifs partageant au moins une des compétences requises (union des listes). */
+        public Set<Long> freelancesCandidats(SkillVector requises) {
+            Set<Long> ids = new HashSet<>();
+            requises.forEach(c -> {
+                Set<Long> liste = idx.freelances.get(c);
+                if (liste != null) ids.addAll(liste);
+            });
+            return ids;
+        }
+    }
+
+    /* =============================================================
+       CHARGEMENT / RECONSTRUCTION
+       ============================================================= */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void chargerAuDemarrage() {
+        reconstruire();
+    }
+
+    @Scheduled(fixedDelayString = "${app.skill-index.reconstruction-ms:900000}",
+               initialDelayString = "${app.skill-index.reconstruction-ms:900000}")
+    @Transactional(readOnly = true)
+    public void reconstruire() {
+        if (!enReconstruction.compareAndSet(false, true)) return;
+        try {
+            synchronized (verrou) {
+                journal = new ArrayList<>();
+            }
+
+            Index neuf = new Index();
+            try (Stream<MissionRepository.CompetenceLigne> lignes =
+                         missionRepository.streamCompetencesMissionsOuvertes(Statut.EN_ATTENTE, LocalDate.now())) {
+                regrouper(lignes.map(l -> Map.entry(l.getId(), optionnel(l.getCompetence()))))
+                        .forEach(neuf::indexerMission);
+            }
+            try (Stream<UtilisateurRepository.CompetenceLigne> lignes =
+                         utilisateurRepository.streamCompetencesActifs(TypeUtilisateur.FREELANCE)) {
+                regrouper(lignes.map(l -> Map.entry(l.getId(), optionnel(l.getCompetence()))))
+                        .forEach(neuf::indexerFreelance);
+            }
+
+            synchronized (verrou) {
+                journal.forEach(maj -> maj.accept(neuf));
+                journal = null;
+                index = neuf;
+                pret  = true;
+            }
+            log.info("Index des compétences reconstruit : {} missions, {} freelances",
+                     neuf.vecteursMission.size(), neuf.vecteursFreelance.size());
+        } catch (RuntimeException e) {
+            synchronized (verrou) {
+                journal = null;
+            }
+            log.error("Échec de la reconstruction de l’index des compétences", e);
+        } finally {
+            enReconstruction.set(false);
+        }
+    }
+
+    /* Lignes (id, compétence) -> id -> compétences ; "" pour une mission sans compétence (LEFT JOIN). */
+    private static Map<Long, List<String>> regrouper(Stream<Map.Entry<Long, String>> lignes) {
+        return lignes.collect(Collectors.groupingBy(Map.Entry::getKey, LinkedHashMap::new,
+                Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+    }
+
+    private static String optionnel(String competence) {
+        return competence == null ? "" : competence;
+    }
+
+    private void appliquer(Consumer<Index> maj) {
+        synchronized (verrou) {
+            maj.accept(index);
+            if (journal != null) journal.add(maj);
+        }
+    }
+
+    /* =============================================================
+       MAINTENANCE INCRÉMENTALE (après commit)
+       ============================================================= */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMissionDisponibilite(MissionDisponibiliteEvent evt) {
+        switch (evt.changement()) {
+            case PUBLIEE, REOUVERTE -> rechargerMission(evt.missionId());
+            case RETIREE -> appliquer(idx -> idx.retirerMission(evt.missionId()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMissionCompetences(MissionCompetencesEvent evt) {
+        rechargerMission(evt.missionId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFreelanceProfil(FreelanceProfilEvent evt) {
+        Long id = evt.freelanceId();
+        // Vide si le compte n’est plus un freelance actif (ou a été supprimé)
+        List<String> competences = utilisateurRepository.findCompetencesActif(id, TypeUtilisateur.FREELANCE);
+        appliquer(idx -> idx.indexerFreelance(id, competences));
+    }
+
+    private void rechargerMission(Long id) {
+        boolean disponible = missionRepository.findById(id)
+                .map(Mission::estDisponiblePourSwipe)
+                .orElse(false);
+        if (!disponible) {
+            appliquer(idx -> idx.retirerMission(id));
+            return;
+        }
+        List<String> competences = missionRepository.findCompetencesRequisesById(id);
+        appliquer(idx -> idx.indexerMission(id, competences));
+    }
+
+    /* =============================================================
+       STRUCTURE
+       ============================================================= */
+    /** Listes inversées + vecteur de chaque entrée (pour la retirer sans tout parcourir). */
+    private final class Index {
+        final Map<Integer, Set<Long>> missions               = new ConcurrentHashMap<>();
+        final Map<Long, SkillVector>  vecteursMission        = new ConcurrentHashMap<>();
+        final Set<Long>               missionsSansCompetence = ConcurrentHashMap.newKeySet();
+
+        final Map<Integer, Set<Long>> freelances        = new ConcurrentHashMap<>();
+        final Map<Long, SkillVector>  vecteursFreelance = new ConcurrentHashMap<>();
+
+        void indexerMission(Long id, Collection<String> competences) {
+            retirerMission(id);
+            SkillVector v = dictionnaire.vecteur(competences);
+            vecteursMission.put(id, v);
+            if (v.estVide()) {
+                missionsSansCompetence.add(id);
+                return;
+            }
+            v.forEach(c -> missions.computeIfAbsent(c, k -> ConcurrentHashMap.newKeySet()).add(id));
+        }
+
+        void retirerMission(Long id) {
+            missionsSansCompetence.remove(id);
+            SkillVector v = vecteursMission.remove(id);
+            if (v != null) v.forEach(c -> retirer(missions, c, id));
+        }
+
+        void indexerFreelance(Long id, Collection<String> competences) {
+            SkillVector ancien = vecteursFreelance.remove(id);
+            if (ancien != null) ancien.forEach(c -> retirer(freelances, c, id));
+            SkillVector v = dictionnaire.vecteur(competences);
+            if (v.estVide()) return;
+            vecteursFreelance.put(id, v);
+            v.forEach(c -> freelances.computeIfAbsent(c, k -> ConcurrentHashMap.newKeySet()).add(id));
+        }
+
+        private static void retirer(Map<Integer, Set<Long>> listes, int competence, Long id) {
+            listes.computeIfPresent(competence, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /* =============================================================
+       ÉVÉNEMENTS
+       ============================================================= */
+    /** Compétences requises modifiées sur une mission toujours ouverte. */
+    public record MissionCompetencesEvent(Long missionId) {}
+
+    /** Profil freelance créé / modifié / (dés)activé / supprimé. */
+    public record FreelanceProfilEvent(Long freelanceId) {}
+}
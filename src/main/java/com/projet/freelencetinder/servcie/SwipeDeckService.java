@@ -0,0 +1,214 @@
+package com.projet.freelencetinder.servcie;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Mission.Statut;
+import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.repository.SwipeRepository;
+
+/**
+ * Deck de swipe pré-calculé par freelance : identifiants des missions éligibles
+ * les plus récentes, triés par id décroissant comme la pagination keyset de
+ * GET /api/swipes/available (afterId). Une page se lit dans le deck sans le
+ * modifier ; au-delà de sa dernière carte, la suite vient de la base.
+ *
+ * Les decks sont maintenus incrémentalement (publication / retrait /
+ * réouverture de mission, swipe du freelance) à partir d’événements publiés
+ * après commit, en ne touchant que les decks concernés. Le nombre de decks est
+ * borné (LRU : les freelances inactifs sont évincés) et un deck absent est
+ * reconstruit depuis la base au prochain appel.
+ * Les identifiants servis restent revalidés au chargement par SwipeService
+ * (disponibilité, swipes déjà faits), qui retire du deck les cartes écartées.
+ */
+@Service
+public class SwipeDeckService {
+
+    private static final Logger log = LoggerFactory.getLogger(SwipeDeckService.class);
+
+    private final MissionRepository missionRepository;
+    private final SwipeRepository   swipeRepository;
+    private final int tailleDeck;
+
+    /** freelanceId -> deck, en ordre d’accès (LRU). Toujours manipulé sous verrou. */
+    private final LinkedHashMap<Long, Deck> decks;
+
+    /** Cartes d’un freelance, id décroissant. */
+    private static final class Deck {
+        final TreeSet<Long> ids = new TreeSet<>(Comparator.reverseOrder());
+        /* Faux si la base a d’autres candidats plus anciens que la dernière carte (deck tronqué) */
+        boolean complet;
+    }
+
+    /**
+     * Cartes lues dans le deck après le curseur. {@code suiteEnBase} : curseur
+     * à reprendre en base quand le deck ne couvre pas la suite ; null sinon.
+     */
+    public record Tranche(List<Long> ids, Long suiteEnBase) {}
+
+    public SwipeDeckService(MissionRepository missionRepository,
+                            SwipeRepository swipeRepository,
+                            @Value("${app.swipe.deck.taille:200}") int tailleDeck,
+                            @Value("${app.swipe.deck.max-freelances:5000}") int maxFreelances) {
+        this.missionRepository = missionRepository;
+        this.swipeRepository   = swipeRepository;
+        this.tailleDeck        = tailleDeck;
+        this.decks = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Deck> eldest) {
+                return size() > maxFreelances;
+            }
+        };
+    }
+
+    /* =============================================================
+       LECTURE : page suivante, sans retirer de cartes
+       ============================================================= */
+    /**
+     * Jusqu’à {@code n} identifiants strictement plus anciens que {@code afterId}
+     * (toutes les cartes si null), en reconstruisant le deck depuis la base
+     * s’il est absent ou vidé par les swipes.
+     */
+    public Tranche consulter(Long freelanceId, Long afterId, int n) {
+        Deck deck;
+        synchronized (decks) {
+            deck = decks.get(freelanceId);
+            if (deck != null && deck.ids.isEmpty() && !deck.complet) {
+                decks.remove(freelanceId);
+                deck = null;
+            }
+        }
+        if (deck == null) {
+            deck = reconstruire(freelanceId);
+        }
+
+        synchronized (decks) {
+            SortedSet<Long> suite = afterId == null ? deck.ids : deck.ids.tailSet(afterId, false);
+            List<Long> ids = new ArrayList<>(Math.min(n, suite.size()));
+            for (Long id : suite) {
+                if (ids.size() == n) break;
+                ids.add(id);
+            }
+            Long suiteEnBase = null;
+            if (ids.size() < n && !deck.complet) {
+                // Deck épuisé après le curseur : la base reprend après sa dernière carte
+                Long dernier = deck.ids.isEmpty() ? Long.MAX_VALUE : deck.ids.last();
+                suiteEnBase = afterId != null ? Math.min(afterId, dernier) : dernier;
+            }
+            return new Tranche(ids, suiteEnBase);
+        }
+    }
+
+    /** Cartes écartées au chargement (déjà swipées, plus disponibles). */
+    public void retirer(Long freelanceId, Collection<Long> missionIds) {
+        if (missionIds.isEmpty()) return;
+        synchronized (decks) {
+            Deck deck = decks.get(freelanceId);
+            if (deck != null) deck.ids.removeAll(missionIds);
+        }
+    }
+
+    private Deck reconstruire(Long freelanceId) {
+        // Une carte de plus que la taille du deck : indique s’il reste des candidats en base
+        List<Long> ids = missionRepository.findSwipeCandidateIds(
+                freelanceId, Statut.EN_ATTENTE, LocalDate.now(), PageRequest.of(0, tailleDeck + 1));
+
+        Deck deck = new Deck();
+        deck.complet = ids.size() <= tailleDeck;
+        deck.ids.addAll(ids.subList(0, Math.min(ids.size(), tailleDeck)));
+        synchronized (decks) {
+            Deck existant = decks.putIfAbsent(freelanceId, deck);
+            if (existant != null) return existant;
+        }
+        log.debug("Deck swipe reconstruit pour le freelance {} ({} cartes)", freelanceId, deck.ids.size());
+        return deck;
+    }
+
+    /* Sous verrou. Une mission plus ancienne que la dernière carte d’un deck tronqué
+       n’y entre pas : la base la servira après lui. */
+    private void ajouter(Deck deck, Long missionId) {
+        if (!deck.complet && !deck.ids.isEmpty() && missionId < deck.ids.last()) return;
+        deck.ids.add(missionId);
+        if (deck.ids.size() > tailleDeck) {
+            deck.ids.pollLast();
+            deck.complet = false;
+        }
+    }
+
+    /* =============================================================
+       MAINTENANCE INCRÉMENTALE (après commit)
+       ============================================================= */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMissionDisponibilite(MissionDisponibiliteEvent evt) {
+        Long missionId = evt.missionId();
+        switch (evt.changement()) {
+            case PUBLIEE -> {
+                synchronized (decks) {
+                    decks.values().forEach(deck -> ajouter(deck, missionId));
+                }
+            }
+            case RETIREE -> {
+                synchronized (decks) {
+                    decks.values().forEach(deck -> deck.ids.remove(missionId));
+                }
+            }
+            case REOUVERTE -> {
+                // Seuls les freelances qui ne l’ont pas encore swipée la retrouvent
+                Set<Long> dejaSwipee = new HashSet<>(swipeRepository.findFreelanceIdsByMissionId(missionId));
+                synchronized (decks) {
+                    decks.forEach((freelanceId, deck) -> {
+                        if (!dejaSwipee.contains(freelanceId)) ajouter(deck, missionId);
+                    });
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSwipeFreelance(SwipeFreelanceEvent evt) {
+        synchronized (decks) {
+            Deck deck = decks.get(evt.freelanceId());
+            if (deck == null) return;
+            // Swipe annulé : la carte redevient candidate (disponibilité revérifiée au chargement)
+            if (evt.annule()) ajouter(deck, evt.missionId());
+            else deck.ids.remove(evt.missionId());
+        }
+    }
+
+    /* =============================================================
+       ÉVÉNEMENTS
+       ============================================================= */
+    public enum Changement { PUBLIEE, RETIREE, REOUVERTE }
+
+    /** Une mission entre dans (ou sort de) l’ensemble des missions swipables. */
+    public record MissionDisponibiliteEvent(Long missionId, Changement changement) {
+
+        /** Compare la disponibilité avant / après modification ; null si inchangée. */
+        public static MissionDisponibiliteEvent transition(Mission m, boolean avant) {
+            boolean apres = m.estDisponiblePourSwipe();
+            if (avant == apres) return null;
+            return new MissionDisponibiliteEvent(m.getId(), apres ? Changement.REOUVERTE : Changement.RETIREE);
+        }
+    }
+
+    /** Swipe (ou annulation de swipe) d’une mission par un freelance. */
+    public record SwipeFreelanceEvent(Long freelanceId, Long missionId, boolean annule) {}
+}
@@ -3,19 +3,27 @@ package com.projet.freelencetinder.servcie; // ou com.projet.freelencetinder.ser
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.projet.freelencetinder.dto.ClientInfoDTO;
+import com.projet.freelencetinder.dto.CursorPage;
+import com.projet.freelencetinder.dto.FreelanceRecommendationDTO;
 import com.projet.freelencetinder.dto.FreelanceSummaryDTO;
 import com.projet.freelencetinder.dto.MissionRecommendationDTO;
 import com.projet.freelencetinder.dto.MissionSummaryDTO;
@@ -29,8 +37,25 @@ import com.projet.freelencetinder.models.Utilisateur;
 import com.projet.freelencetinder.models.Utilisateur.TypeUtilisateur;
 import com.projet.freelencetinder.repository.ClientSwipeRepository;
 import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.repository.MissionRepository.MissionCandidat;
+import com.projet.freelencetinder.repository.MissionRepository.MissionCandidatCompte;
 import com.projet.freelencetinder.repository.SwipeRepository;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.repository.UtilisateurRepository.BadgeLigne;
+import com.projet.freelencetinder.repository.UtilisateurRepository.CompetenceLigne;
+import com.projet.freelencetinder.repository.UtilisateurRepository.FreelanceCandidat;
+import com.projet.freelencetinder.repository.UtilisateurRepository.FreelanceCandidatCompte;
+import com.projet.freelencetinder.repository.UtilisateurRepository.FreelanceCarte;
+import com.projet.freelencetinder.servcie.CounterService.Compteur;
+import com.projet.freelencetinder.servcie.CounterService.Increment;
+import com.projet.freelencetinder.servcie.FreelanceScoringEngine.FreelanceScore;
+import com.projet.freelencetinder.servcie.MissionScoringEngine.MissionScore;
+import com.projet.freelencetinder.servcie.RealtimeDispatcher.Livraison;
+import com.projet.freelencetinder.servcie.SkillDictionary.SkillVector;
+import com.projet.freelencetinder.servcie.SwipeDeckService.Changement;
+import com.projet.freelencetinder.servcie.SwipeDeckService.MissionDisponibiliteEvent;
+import com.projet.freelencetinder.servcie.SwipeDeckService.SwipeFreelanceEvent;
+import com.projet.freelencetinder.servcie.SwipeDeckService.Tranche;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -42,7 +67,11 @@ public class SwipeService {
     private final SwipeRepository swipeRepository;
     private final ClientSwipeRepository clientSwipeRepository;
     private final ConversationService   conversationService;
-    private final SimpMessagingTemplate broker;
+    private final SwipeDeckService      deckService;
+    private final MissionScoringEngine  scoringEngine;
+    private final FreelanceScoringEngine freelanceScoringEngine;
+    private final SkillIndexService     skillIndex;
+    private final ApplicationEventPublisher publisher;
 
 
     @Autowired
@@ -51,35 +80,90 @@ public class SwipeService {
                         SwipeRepository swipeRepository,
                         ClientSwipeRepository clientSwipeRepository,
                         ConversationService conversationService,
-                        SimpMessagingTemplate broker) {
+                        SwipeDeckService deckService,
+                        MissionScoringEngine scoringEngine,
+                        FreelanceScoringEngine freelanceScoringEngine,
+                        SkillIndexService skillIndex,
+                        ApplicationEventPublisher publisher) {
         this.missionRepository      = missionRepository;
         this.utilisateurRepository  = utilisateurRepository;
         this.swipeRepository        = swipeRepository;
         this.clientSwipeRepository  = clientSwipeRepository;
         this.conversationService    = conversationService;
-        this.broker                 = broker;
+        this.deckService            = deckService;
+        this.scoringEngine          = scoringEngine;
+        this.freelanceScoringEngine = freelanceScoringEngine;
+        this.skillIndex             = skillIndex;
+        this.publisher              = publisher;
     }
 
     /* =============================================================
        LISTE DES MISSIONS POUR SWIPE FREELANCE
+       Pagination keyset : afterId = id de la dernière carte reçue.
+       Sans catégorie : lue dans le deck pré-calculé (même ordre, id décroissant),
+       puis en base au-delà de sa dernière carte.
        ============================================================= */
-    public List<MissionSummaryDTO> getMissionsForSwipe(Long freelanceId, Categorie categorie) {
-        Utilisateur freelance = getFreelanceOrThrow(freelanceId);
+    private static final int TAILLE_PAGE_SWIPE_MAX = 100;
+    private static final int TENTATIVES_DECK       = 3;
 
-        Set<Long> dejaSwipes = swipeRepository.findByFreelanceId(freelanceId).stream()
-                .map(s -> s.getMission().getId())
-                .collect(Collectors.toSet());
+    @Transactional(readOnly = true)
+    public List<MissionSummaryDTO> getMissionsForSwipe(Long freelanceId,
+                                                       Categorie categorie,
+                                                       Long afterId,
+                                                       int size) {
+        getFreelanceOrThrow(freelanceId);
 
-        LocalDate today = LocalDate.now();
+        LocalDate today   = LocalDate.now();
+        int       taille  = Math.max(1, Math.min(size, TAILLE_PAGE_SWIPE_MAX));
 
-        return missionRepository.findAll().stream()
-                .filter(Mission::estDisponiblePourSwipe)
-                .filter(m -> !dejaSwipes.contains(m.getId()))
-                .filter(m -> categorie == null || m.getCategorie() == categorie)
+        if (categorie == null) {
+            return lireDeck(freelanceId, afterId, taille, today);
+        }
+
+        Long curseur = afterId != null ? afterId : Long.MAX_VALUE;
+        return missionRepository.findSwipeCandidatesByCategorie(
+                        freelanceId, categorie, Statut.EN_ATTENTE, today, curseur, PageRequest.of(0, taille))
+                .stream()
                 .map(m -> toSummaryDTO(m, today))
                 .collect(Collectors.toList());
     }
 
+    /** Les cartes déjà swipées ou devenues indisponibles sont retirées du deck puis remplacées. */
+    private List<MissionSummaryDTO> lireDeck(Long freelanceId, Long afterId, int taille, LocalDate today) {
+        List<MissionSummaryDTO> cartes = new ArrayList<>(taille);
+        Long curseur = afterId;
+        for (int i = 0; i < TENTATIVES_DECK && cartes.size() < taille; i++) {
+            Tranche tranche = deckService.consulter(freelanceId, curseur, taille - cartes.size());
+            List<Long> ids = tranche.ids();
+
+            if (!ids.isEmpty()) {
+                Set<Long> swipees = new HashSet<>(swipeRepository.findMissionIdsSwipees(freelanceId, ids));
+                Map<Long, Mission> parId = missionRepository.findAllWithClientByIdIn(ids).stream()
+                        .collect(Collectors.toMap(Mission::getId, Function.identity()));
+                List<Long> ecartees = new ArrayList<>();
+                for (Long id : ids) {
+                    Mission m = parId.get(id);
+                    if (m == null || swipees.contains(id) || !m.estDisponiblePourSwipe()) ecartees.add(id);
+                    else cartes.add(toSummaryDTO(m, today));
+                }
+                deckService.retirer(freelanceId, ecartees);
+                curseur = ids.getLast();
+            }
+
+            if (tranche.suiteEnBase() != null) {
+                // Au-delà du deck : même requête keyset, en base
+                if (cartes.size() < taille) {
+                    missionRepository.findSwipeCandidates(freelanceId, Statut.EN_ATTENTE, today,
+                                    tranche.suiteEnBase(), PageRequest.of(0, taille - cartes.size()))
+                            .forEach(m -> cartes.add(toSummaryDTO(m, today)));
+                }
+                break;
+            }
+            if (ids.isEmpty()) break;
+        }
+        return cartes;
+    }
+
     /* =============================================================
     SWIPE FREELANCE -> MISSION
     ============================================================= */
@@ -95,21 +179,17 @@ public class SwipeService {
      if (!mission.estDisponiblePourSwipe()) {
          throw new IllegalStateException("Mission non disponible pour swipe (statut=" + mission.getStatut() + ")");
      }
-     if (swipeRepository.findByFreelanceIdAndMissionId(freelanceId, missionId).isPresent()) {
-         throw new IllegalStateException("Mission déjà swipée par ce freelance");
-     }
-
-     Swipe swipe = new Swipe();
-     swipe.setFreelance(freelance);
-     swipe.setMission(mission);
-     swipe.setDecision(decision);
-     swipe.setDateSwipe(LocalDateTime.now());
 
-     swipeRepository.save(swipe);
+     // Doublon détecté par l’insertion elle-même (contrainte unique), sans lecture préalable
+     Swipe swipe = swipeRepository
+             .insertSiAbsent(freelanceId, missionId, decision.name(), LocalDateTime.now())
+             .orElseThrow(() -> new IllegalStateException("Mission déjà swipée par ce freelance"));
+     publisher.publishEvent(new SwipeFreelanceEvent(freelanceId, missionId, false));
 
-     mission.incrementSwipe();
-     freelance.incrementNombreSwipes();
-     if (decision == Swipe.Decision.LIKE) mission.incrementLike();
+     // Compteurs agrégés en mémoire par CounterService après commit (aucune écriture ici)
+     publisher.publishEvent(new Increment(Compteur.SWIPES_RECUS, missionId));
+     publisher.publishEvent(new Increment(Compteur.NOMBRE_SWIPES, freelanceId));
+     if (decision == Swipe.Decision.LIKE) publisher.publishEvent(new Increment(Compteur.LIKES_MISSION, missionId));
 
      if (decision == Swipe.Decision.LIKE) {
          Utilisateur client = mission.getClient();
@@ -146,22 +226,11 @@ public class SwipeService {
 
      Utilisateur freelance = getFreelanceOrThrow(freelanceId);
 
-     if (clientSwipeRepository
-             .findByClientIdAndMissionIdAndFreelanceId(clientId, missionId, freelanceId)
-             .isPresent()) {
-         throw new IllegalStateException("Ce freelance a déjà été swipé par le client");
-     }
-
-     ClientSwipe cs = new ClientSwipe();
-     cs.setClient(client);
-     cs.setMission(mission);
-     cs.setFreelance(freelance);
-     cs.setDecision(decision);
-     cs.setDateSwipe(LocalDateTime.now());
-
-     clientSwipeRepository.save(cs);
+     ClientSwipe cs = clientSwipeRepository
+             .insertSiAbsent(clientId, missionId, freelanceId, decision.name(), LocalDateTime.now())
+             .orElseThrow(() -> new IllegalStateException("Ce freelance a déjà été swipé par le client"));
 
-     if (decision == Swipe.Decision.LIKE) freelance.incrementLikesRecus();
+     if (decision == Swipe.Decision.LIKE) publisher.publishEvent(new Increment(Compteur.LIKES_RECUS, freelanceId));
 
      if (decision == Swipe.Decision.LIKE
              && mission.getStatut() == Statut.EN_ATTENTE
@@ -191,10 +260,11 @@ private void handleMatch(Mission mission,
 {
   try {
       mission.affecterFreelance(freelance);
-      freelance.incrementMatchesObtenus();
+      publisher.publishEvent(new Increment(Compteur.MATCHES_OBTENUS, freelance.getId()));
       if (swipe       != null) swipe.setAGenereMatch(true);
       if (clientSwipe != null) clientSwipe.setAGenereMatch(true);
       missionRepository.save(mission);
+      publisher.publishEvent(new MissionDisponibiliteEvent(mission.getId(), Changement.RETIREE));
 
       var conv = conversationService
               .findOrCreate(mission.getId(),
@@ -210,9 +280,9 @@ private void handleMatch(Mission mission,
           freelance.getPhotoProfilUrl()  // AJOUT
       );
 
-   // ✅ APRÈS (ça va marcher !)
-      broker.convertAndSendToUser(client.getEmail(), "/queue/matches", notif);
-      broker.convertAndSendToUser(freelance.getEmail(), "/queue/matches", notif);
+      // Poussé après commit par RealtimeDispatcher (rien n’est envoyé si le match est annulé)
+      publisher.publishEvent(new Livraison(client.getEmail(), "/queue/matches", notif));
+      publisher.publishEvent(new Livraison(freelance.getEmail(), "/queue/matches", notif));
 
   } catch (OptimisticLockingFailureException ex) {
       throw new IllegalStateException("Conflit de mise à jour (match concurrent)", ex);
@@ -233,7 +303,8 @@ private void handleMatch(Mission mission,
 
         mission.affecterFreelance(freelance);
         missionRepository.save(mission);
-        freelance.incrementMatchesObtenus();
+        publisher.publishEvent(new MissionDisponibiliteEvent(mission.getId(), Changement.RETIREE));
+        publisher.publishEvent(new Increment(Compteur.MATCHES_OBTENUS, freelanceId));
     }
 
     /* =============================================================
@@ -246,6 +317,7 @@ private void handleMatch(Mission mission,
                 .orElseThrow(() -> new EntityNotFoundException("Aucun swipe trouvé"));
 
         swipeRepository.delete(swipe);
+        publisher.publishEvent(new SwipeFreelanceEvent(freelanceId, missionId, true));
 
         Mission mission = swipe.getMission();
         if (swipe.getDecision() == Swipe.Decision.LIKE
@@ -257,6 +329,7 @@ private void handleMatch(Mission mission,
             mission.setStatut(Statut.EN_ATTENTE);
             mission.setVerrouillee(false);
             missionRepository.save(mission);
+            publisher.publishEvent(new MissionDisponibiliteEvent(mission.getId(), Changement.REOUVERTE));
         }
     }
 
@@ -281,42 +354,82 @@ private void handleMatch(Mission mission,
             mission.setStatut(Statut.EN_ATTENTE);
             mission.setVerrouillee(false);
             missionRepository.save(mission);
+            publisher.publishEvent(new MissionDisponibiliteEvent(mission.getId(), Changement.REOUVERTE));
         }
     }
 
     /* =============================================================
        RECOMMANDATIONS POUR FREELANCE
+       Candidats présélectionnés par l’index inversé des compétences,
+       parcourus en curseur, puis top K borné (MissionScoringEngine).
+       Compétences communes = intersection des SkillVector profil / mission.
        ============================================================= */
+    private static final int NB_RECOMMANDATIONS = 40;
+    private static final int LOT_CANDIDATS      = 1000;
+
+    @Transactional(readOnly = true)
     public List<MissionRecommendationDTO> getRecommandationsPourFreelance(Long freelanceId) {
+        // Profil sans compétence : seules les missions sans compétence requise restent candidates
+        // (liste missionsSansCompetence de l’index, ou aucune compétence commune en SQL)
         Utilisateur freelance = getFreelanceOrThrow(freelanceId);
 
-        Set<Long> dejaSwipes = swipeRepository.findByFreelanceId(freelanceId).stream()
-                .map(s -> s.getMission().getId())
-                .collect(Collectors.toSet());
-
-        Set<Mission.Categorie> categoriesPref = swipeRepository
-                .findByFreelanceIdAndDecision(freelanceId, Swipe.Decision.LIKE)
-                .stream()
-                .map(s -> s.getMission().getCategorie())
-                .collect(Collectors.toSet());
+        Set<Mission.Categorie> categoriesPref = EnumSet.noneOf(Mission.Categorie.class);
+        categoriesPref.addAll(swipeRepository
+                .findCategoriesByFreelanceIdAndDecision(freelanceId, Swipe.Decision.LIKE));
 
         LocalDate today = LocalDate.now();
 
-        return missionRepository.findAll().stream()
-                .filter(Mission::estDisponiblePourSwipe)
-                .filter(m -> !dejaSwipes.contains(m.getId()))
-                .filter(m -> hasSkillOverlap(m, freelance))
-                .sorted(Comparator.comparingInt(
-                        (Mission m) -> scoreMissionPourFreelance(m, freelance, categoriesPref))
-                        .reversed())
-                .limit(40)
-                .map(m -> {
-                    int sc = scoreMissionPourFreelance(m, freelance, categoriesPref);
-                    return toRecommendationDTO(m, freelance, sc, today);
-                })
+        List<MissionScore> top = skillIndex.estPret()
+                ? topDepuisIndex(freelance, categoriesPref, today)
+                : topParcoursComplet(freelance, categoriesPref, today);
+        if (top.isEmpty()) return List.of();
+
+        Map<Long, Mission> parId = missionRepository
+                .findAllWithClientByIdIn(top.stream().map(ms -> ms.candidat().getId()).toList())
+                .stream()
+                .collect(Collectors.toMap(Mission::getId, Function.identity()));
+
+        return top.stream()
+                .filter(ms -> parId.containsKey(ms.candidat().getId()))
+                .map(ms -> toRecommendationDTO(parId.get(ms.candidat().getId()), ms, today))
                 .collect(Collectors.toList());
     }
 
+    /* Seules les missions des listes du profil sont relues, par lots d’ids. */
+    private List<MissionScore> topDepuisIndex(Utilisateur freelance,
+                                              Set<Mission.Categorie> categoriesPref,
+                                              LocalDate today) {
+        SkillIndexService.Lecture lecture = skillIndex.lecture();
+        SkillVector profil = skillIndex.vecteur(freelance.getCompetences());
+        List<Long> ids = new ArrayList<>(lecture.missionsCandidates(profil));
+        if (ids.isEmpty()) return List.of();
+
+        try (Stream<MissionCandidat> candidats = parLots(ids)
+                .flatMap(lot -> missionRepository.streamRecommendationCandidatesByIdIn(
+                        freelance.getId(), Statut.EN_ATTENTE, today, lot))) {
+            return scoringEngine.topK(candidats, freelance, categoriesPref,
+                    c -> profil.intersection(lecture.vecteurMission(c.getId())),
+                    NB_RECOMMANDATIONS);
+        }
+    }
+
+    /* Lots d’ids de LOT_CANDIDATS au plus (taille de la liste IN). */
+    private static Stream<List<Long>> parLots(List<Long> ids) {
+        return IntStream.range(0, (ids.size() + LOT_CANDIDATS - 1) / LOT_CANDIDATS)
+                .mapToObj(i -> ids.subList(i * LOT_CANDIDATS, Math.min(ids.size(), (i + 1) * LOT_CANDIDATS)));
+    }
+
+    /* Index pas encore chargé (démarrage) : parcours complet, compétences communes comptées en SQL. */
+    private List<MissionScore> topParcoursComplet(Utilisateur freelance,
+                                                  Set<Mission.Categorie> categoriesPref,
+                                                  LocalDate today) {
+        try (Stream<MissionCandidatCompte> candidats = missionRepository.streamRecommendationCandidates(
+                freelance.getId(), Statut.EN_ATTENTE, today, SkillDictionary.normaliser(freelance.getCompetences()))) {
+            return scoringEngine.topK(candidats, freelance, categoriesPref,
+                    MissionScoringEngine::competencesCommunes, NB_RECOMMANDATIONS);
+        }
+    }
+
     /* =============================================================
        MAPPINGS DTO
        ============================================================= */
@@ -344,8 +457,7 @@ private void handleMatch(Mission mission,
     }
 
     private MissionRecommendationDTO toRecommendationDTO(Mission m,
-                                                         Utilisateur freelance,
-                                                         int score,
+                                                         MissionScore ms,
                                                          LocalDate today) {
         MissionRecommendationDTO dto = new MissionRecommendationDTO();
         dto.setId(m.getId());
@@ -358,14 +470,11 @@ private void handleMatch(Mission mission,
         dto.setDureeEstimeeJours(m.getDureeEstimeeJours());
         dto.setDateLimiteCandidature(m.getDateLimiteCandidature());
         dto.setModaliteTravail(m.getModaliteTravail());
-        dto.setScore(score);
+        dto.setScore(ms.score());
 
-        int totalReq = m.getCompetencesRequises() != null ? m.getCompetencesRequises().size() : 0;
+        int totalReq = ms.totalRequiredSkills();
         dto.setTotalRequiredSkills(totalReq);
-        int matched = (int) (m.getCompetencesRequises() == null ? 0 :
-                m.getCompetencesRequises().stream()
-                        .filter(freelance.getCompetences()::contains)
-                        .count());
+        int matched = ms.matchedSkills();
         dto.setMatchedSkills(matched);
         dto.setMatchRatio(totalReq == 0 ? 0.0 : (double) matched / totalReq);
 
@@ -394,37 +503,6 @@ private void handleMatch(Mission mission,
         return dto;
     }
 
-    /* =============================================================
-       LOGIQUE SCORING
-       ============================================================= */
-    private boolean hasSkillOverlap(Mission m, Utilisateur freelance) {
-        if (m.getCompetencesRequises() == null || m.getCompetencesRequises().isEmpty()) return true;
-        if (freelance.getCompetences() == null) return false;
-        return m.getCompetencesRequises().stream().anyMatch(freelance.getCompetences()::contains);
-    }
-
-    private int scoreMissionPourFreelance(Mission m, Utilisateur freelance, Set<Mission.Categorie> categoriesPref) {
-        int score = 0;
-        long commonSkills = m.getCompetencesRequises() != null
-                ? m.getCompetencesRequises().stream()
-                .filter(freelance.getCompetences()::contains).count()
-                : 0;
-        score += commonSkills * 4;
-        if (categoriesPref.contains(m.getCategorie())) score += 5;
-        if (freelance.getTarifHoraire() == null
-                || (m.getBudget() != null && freelance.getTarifHoraire() != null
-                && m.getBudget().doubleValue() >= freelance.getTarifHoraire())) {
-            score += 2;
-        }
-        long ageDays = ChronoUnit.DAYS.between(m.getDatePublication(), LocalDateTime.now());
-        score += Math.max(0, 21 - ageDays);
-        if (m.getDateLimiteCandidature() != null) {
-            long toDeadline = ChronoUnit.DAYS.between(LocalDate.now(), m.getDateLimiteCandidature());
-            if (toDeadline <= 7 && toDeadline >= 0) score += 2;
-        }
-        return score;
-    }
-
     /* =============================================================
        HELPERS ENTITÉS
        ============================================================= */
@@ -503,35 +581,162 @@ private void handleMatch(Mission mission,
         );
         return dto;
     }
-    /* =============================================================
-    EXPLORE FREELANCES POUR UNE MISSION (match par catégorie)
-    ============================================================= */
- @Transactional(readOnly = true)
- public List<FreelanceSummaryDTO> getFreelancersMatchingMission(Long clientId, Long missionId) {
+    /* -------------------------------------------------------------
+       Mapping ligne d’explore -> FreelanceSummaryDTO
+       ------------------------------------------------------------- */
+    private FreelanceSummaryDTO toFreelanceSummaryDTO(FreelanceCarte f,
+                                                      Set<String> competences,
+                                                      String badgePrincipal) {
+        FreelanceSummaryDTO dto = new FreelanceSummaryDTO();
+        dto.setId(f.getId());
+        dto.setNom(f.getNom());
+        dto.setPrenom(f.getPrenom());
+        dto.setPhotoUrl(f.getPhotoProfilUrl());
+        dto.setLocalisation(f.getLocalisation());
+        dto.setNiveauExperience(
+            f.getNiveauExperience() != null ? f.getNiveauExperience().name() : null);
+        dto.setDisponibilite(
+            f.getDisponibilite() != null ? f.getDisponibilite().name() : null);
+        dto.setTarifHoraire(f.getTarifHoraire());
+        dto.setNoteMoyenne(f.getNoteMoyenne());
+        dto.setCompetences(competences);
+        dto.setBadgePrincipal(badgePrincipal);
+        return dto;
+    }
 
-     Utilisateur client  = getClientOrThrow(clientId);
-     Mission     mission = getMissionOrThrow(missionId);
-     if (!mission.getClient().getId().equals(clientId)) {
-         throw new IllegalArgumentException("Cette mission n’appartient pas à ce client");
-     }
+    /* =============================================================
+       EXPLORE FREELANCES POUR UNE MISSION (match par catégorie)
+       Pagination keyset : afterId = id du dernier freelance reçu.
+       ============================================================= */
+    @Transactional(readOnly = true)
+    public CursorPage<FreelanceSummaryDTO> getFreelancersMatchingMission(Long clientId,
+                                                                         Long missionId,
+                                                                         Long afterId,
+                                                                         int size) {
+        getClientOrThrow(clientId);
+        Mission mission = getMissionOrThrow(missionId);
+        if (!mission.getClient().getId().equals(clientId)) {
+            throw new IllegalArgumentException("Cette mission n’appartient pas à ce client");
+        }
 
-     Mission.Categorie categorie = mission.getCategorie();
+        Long curseur = afterId != null ? afterId : Long.MAX_VALUE;
+        int  taille  = Math.max(1, Math.min(size, TAILLE_PAGE_SWIPE_MAX));
+
+        // Une ligne de plus que demandé : sert uniquement à savoir s’il reste une page
+        CursorPage<FreelanceCarte> page = CursorPage.of(
+                utilisateurRepository.findExploreCandidates(
+                        clientId, missionId, mission.getCategorie(), TypeUtilisateur.FREELANCE,
+                        curseur, PageRequest.of(0, taille + 1)),
+                taille, FreelanceCarte::getId);
+        if (page.getItems().isEmpty()) return new CursorPage<>(List.of(), null, false);
+
+        // Collections chargées en 2 requêtes pour toute la page (pas de N+1)
+        List<Long> ids = page.getItems().stream().map(FreelanceCarte::getId).toList();
+        Map<Long, Set<String>> competences = utilisateurRepository.findCompetencesByIdIn(ids).stream()
+                .collect(Collectors.groupingBy(CompetenceLigne::getId,
+                        Collectors.mapping(CompetenceLigne::getCompetence, Collectors.toSet())));
+        Map<Long, String> badges = utilisateurRepository.findBadgesByIdIn(ids).stream()
+                .collect(Collectors.toMap(BadgeLigne::getId, BadgeLigne::getBadge,
+                        (a, b) -> a.compareTo(b) <= 0 ? a : b));
+
+        return page.map(f -> toFreelanceSummaryDTO(
+                f, competences.getOrDefault(f.getId(), Set.of()), badges.get(f.getId())));
+    }
 
-     Set<Long> dejaSwipes = clientSwipeRepository
-             .findByClientIdAndMissionId(clientId, missionId)
-             .stream()
-             .map(cs -> cs.getFreelance().getId())
-             .collect(Collectors.toSet());
+    /* =============================================================
+       RECOMMANDATIONS DE FREELANCES POUR UNE MISSION (client)
+       Filtres de l’explore, restreints aux freelances ayant au moins une
+       compétence requise (listes de l’index), classés par FreelanceScoringEngine
+       en un seul passage (top K borné) : le client voit les meilleurs d’abord.
+       ============================================================= */
+    @Transactional(readOnly = true)
+    public List<FreelanceRecommendationDTO> getFreelancesRecommandes(Long clientId, Long missionId, int limit) {
+        getClientOrThrow(clientId);
+        Mission mission = getMissionOrThrow(missionId);
+        if (!mission.getClient().getId().equals(clientId)) {
+            throw new IllegalArgumentException("Cette mission n’appartient pas à ce client");
+        }
 
-     Long dejaAffecte = mission.getFreelanceSelectionne() != null
-             ? mission.getFreelanceSelectionne().getId() : null;
+        int k = Math.max(1, Math.min(limit, TAILLE_PAGE_SWIPE_MAX));
+        Set<String> requises = mission.getCompetencesRequises() != null
+                ? mission.getCompetencesRequises() : Set.of();
+
+        // Candidats : au moins une compétence requise en commun ; tous ceux de la catégorie
+        // si la mission n’en exige aucune (rien à recouper)
+        List<FreelanceScore> top;
+        if (requises.isEmpty()) {
+            try (Stream<FreelanceCandidat> candidats = utilisateurRepository.streamRecommendationCandidates(
+                    clientId, missionId, mission.getCategorie(), TypeUtilisateur.FREELANCE)) {
+                top = freelanceScoringEngine.topK(candidats, mission.getBudget(), c -> 0, k);
+            }
+        } else if (skillIndex.estPret()) {
+            // Union des listes des compétences requises, relue en base par lots d’ids
+            SkillIndexService.Lecture lecture = skillIndex.lecture();
+            SkillVector vecteurMission = skillIndex.vecteur(requises);
+            List<Long> ids = new ArrayList<>(lecture.freelancesCandidats(vecteurMission));
+            if (ids.isEmpty()) return List.of();
+            try (Stream<FreelanceCandidat> candidats = parLots(ids)
+                    .flatMap(lot -> utilisateurRepository.streamRecommendationCandidatesByIdIn(
+                            clientId, missionId, mission.getCategorie(), TypeUtilisateur.FREELANCE, lot))) {
+                top = freelanceScoringEngine.topK(candidats, mission.getBudget(),
+                        c -> vecteurMission.intersection(lecture.vecteurFreelance(c.getId())), k);
+            }
+        } else {
+            // Index pas encore chargé (démarrage) : compétences communes comptées en SQL,
+            // normalisées comme dans l’index ; mêmes candidats (au moins une en commun)
+            try (Stream<FreelanceCandidatCompte> candidats = utilisateurRepository
+                    .streamRecommendationCandidatesAvecCompte(clientId, missionId, mission.getCategorie(),
+                            TypeUtilisateur.FREELANCE, SkillDictionary.normaliser(requises))) {
+                top = freelanceScoringEngine.topK(
+                        candidats.filter(c -> FreelanceScoringEngine.competencesCommunes(c) > 0),
+                        mission.getBudget(), FreelanceScoringEngine::competencesCommunes, k);
+            }
+        }
+        if (top.isEmpty()) return List.of();
+
+        // Cartes, compétences et badges chargés pour les K retenus seulement
+        List<Long> ids = top.stream().map(fs -> fs.candidat().getId()).toList();
+        Map<Long, FreelanceCarte> cartes = utilisateurRepository.findCartesByIdIn(ids).stream()
+                .collect(Collectors.toMap(FreelanceCarte::getId, Function.identity()));
+        Map<Long, Set<String>> competences = utilisateurRepository.findCompetencesByIdIn(ids).stream()
+                .collect(Collectors.groupingBy(CompetenceLigne::getId,
+                        Collectors.mapping(CompetenceLigne::getCompetence, Collectors.toSet())));
+        Map<Long, String> badges = utilisateurRepository.findBadgesByIdIn(ids).stream()
+                .collect(Collectors.toMap(BadgeLigne::getId, BadgeLigne::getBadge,
+                        (a, b) -> a.compareTo(b) <= 0 ? a : b));
+
+        int totalReq = requises.size();
+        return top.stream()
+                .filter(fs -> cartes.containsKey(fs.candidat().getId()))
+                .map(fs -> {
+                    Long id = fs.candidat().getId();
+                    FreelanceSummaryDTO carte = toFreelanceSummaryDTO(
+                            cartes.get(id), competences.getOrDefault(id, Set.of()), badges.get(id));
+                    return toFreelanceRecommendationDTO(carte, fs, totalReq);
+                })
+                .collect(Collectors.toList());
+    }
 
-     return utilisateurRepository.findAll().stream()
-         .filter(u -> u.getTypeUtilisateur() == TypeUtilisateur.FREELANCE && u.isEstActif())
-         .filter(u -> u.getCategories() != null && u.getCategories().contains(categorie))
-         .filter(u -> !dejaSwipes.contains(u.getId()))
-         .filter(u -> !Objects.equals(u.getId(), dejaAffecte))
-         .map(this::toFreelanceSummaryDTO)
-         .collect(Collectors.toList());
- }
-}
\ No newline at end of file
+    private FreelanceRecommendationDTO toFreelanceRecommendationDTO(FreelanceSummaryDTO carte,
+                                                                    FreelanceScore fs,
+                                                                    int totalReq) {
+        FreelanceRecommendationDTO dto = new FreelanceRecommendationDTO();
+        dto.setId(carte.getId());
+        dto.setNom(carte.getNom());
+        dto.setPrenom(carte.getPrenom());
+        dto.setPhotoUrl(carte.getPhotoUrl());
+        dto.setLocalisation(carte.getLocalisation());
+        dto.setNiveauExperience(carte.getNiveauExperience());
+        dto.setDisponibilite(carte.getDisponibilite());
+        dto.setTarifHoraire(carte.getTarifHoraire());
+        dto.setNoteMoyenne(carte.getNoteMoyenne());
+        dto.setCompetences(carte.getCompetences());
+        dto.setBadgePrincipal(carte.getBadgePrincipal());
+
+        dto.setScore(fs.score());
+        dto.setMatchedSkills(fs.matchedSkills());
+        dto.setTotalRequiredSkills(totalReq);
+        dto.setMatchRatio(totalReq == 0 ? 0.0 : (double) fs.matchedSkills() / totalReq);
+        return dto;
+    }
+}
@@ -6,14 +6,26 @@ import java.util.*;
 import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import com.projet.freelencetinder.dto.CompteursDTO;
+import com.projet.freelencetinder.dto.UtilisateurSummaryDTO;
 import com.projet.freelencetinder.models.Mission;
 import com.projet.freelencetinder.models.Utilisateur;
 import com.projet.freelencetinder.models.Utilisateur.TypeUtilisateur;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.repository.UtilisateurRepository.CategorieLigne;
+import com.projet.freelencetinder.repository.UtilisateurRepository.CompetenceLigne;
+import com.projet.freelencetinder.repository.UtilisateurSpecifications;
+import com.projet.freelencetinder.servcie.ConversationParticipantCache.UtilisateurEmailEvent;
+import com.projet.freelencetinder.servcie.CounterService.Compteur;
+import com.projet.freelencetinder.servcie.SkillIndexService.FreelanceProfilEvent;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -26,14 +38,20 @@ import jakarta.persistence.EntityNotFoundException;
 public class UtilisateurService {
 
     private final UtilisateurRepository utilisateurRepository;
+    private final CounterService counterService;
+    private final ApplicationEventPublisher publisher;
 
     /* Regex simples (adapter si besoin international) */
     private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
     private static final Pattern PHONE_PATTERN = Pattern.compile("^[0-9]{8,15}$");
 
     @Autowired
-    public UtilisateurService(UtilisateurRepository utilisateurRepository) {
+    public UtilisateurService(UtilisateurRepository utilisateurRepository,
+                              CounterService counterService,
+                              ApplicationEventPublisher publisher) {
         this.utilisateurRepository = utilisateurRepository;
+        this.counterService        = counterService;
+        this.publisher             = publisher;
     }
 
     /* =========================================================
@@ -54,7 +72,9 @@ public class UtilisateurService {
         if (utilisateur.getMatchesObtenus() == null) utilisateur.setMatchesObtenus(0);
         normalizeCollections(utilisateur);
 
-        return utilisateurRepository.save(utilisateur);
+        Utilisateur saved = utilisateurRepository.save(utilisateur);
+        publishProfil(saved);
+        return saved;
     }
 
     /* =========================================================
@@ -65,6 +85,54 @@ public class UtilisateurService {
         return utilisateurRepository.findAll();
     }
 
+    /**
+     * Recherche paginée : filtres traduits en SQL (UtilisateurSpecifications),
+     * colonnes simples seulement, compétences / catégories chargées par lot pour la page.
+     */
+    @Transactional(readOnly = true)
+    public Page<UtilisateurSummaryDTO> rechercher(UtilisateurSpecifications.Filtre filtre, int page, int size) {
+        PageRequest pr = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, 100)),
+                                        Sort.by(Sort.Direction.DESC, "id"));
+        Page<Utilisateur> resultats = utilisateurRepository.findAll(UtilisateurSpecifications.depuis(filtre), pr);
+        if (resultats.isEmpty()) return resultats.map(this::toSummaryDTO);
+
+        List<Long> ids = resultats.map(Utilisateur::getId).getContent();
+        Map<Long, Set<String>> competences = new HashMap<>();
+        for (CompetenceLigne l : utilisateurRepository.findCompetencesByIdIn(ids)) {
+            competences.computeIfAbsent(l.getId(), k -> new HashSet<>()).add(l.getCompetence());
+        }
+        Map<Long, Set<Mission.Categorie>> categories = new HashMap<>();
+        for (CategorieLigne l : utilisateurRepository.findCategoriesByIdIn(ids)) {
+            categories.computeIfAbsent(l.getId(), k -> EnumSet.noneOf(Mission.Categorie.class)).add(l.getCategorie());
+        }
+
+        return resultats.map(u -> {
+            UtilisateurSummaryDTO dto = toSummaryDTO(u);
+            dto.setCompetences(competences.getOrDefault(u.getId(), Set.of()));
+            dto.setCategories(categories.getOrDefault(u.getId(), Set.of()));
+            return dto;
+        });
+    }
+
+    private UtilisateurSummaryDTO toSummaryDTO(Utilisateur u) {
+        UtilisateurSummaryDTO dto = new UtilisateurSummaryDTO();
+        dto.setId(u.getId());
+        dto.setNom(u.getNom());
+        dto.setPrenom(u.getPrenom());
+        dto.setEmail(u.getEmail());
+        dto.setTypeUtilisateur(u.getTypeUtilisateur());
+        dto.setPhotoProfilUrl(u.getPhotoProfilUrl());
+        dto.setLocalisation(u.getLocalisation());
+        dto.setLanguePref(u.getLanguePref());
+        dto.setEstActif(u.isEstActif());
+        dto.setTarifHoraire(u.getTarifHoraire());
+        dto.setTarifJournalier(u.getTarifJournalier());
+        dto.setDisponibilite(u.getDisponibilite());
+        dto.setNiveauExperience(u.getNiveauExperience());
+        dto.setNoteMoyenne(u.getNoteMoyenne());
+        return dto;
+    }
+
     @Transactional(readOnly = true)
     public Utilisateur getUtilisateurById(Long id) {
         return utilisateurRepository.findById(id)
@@ -96,6 +164,7 @@ public class UtilisateurService {
             if (utilisateurRepository.existsByEmail(payload.getEmail()))
                 throw new IllegalArgumentException("Nouvel email déjà utilisé.");
             existing.setEmail(payload.getEmail());
+            publisher.publishEvent(new UtilisateurEmailEvent(existing.getId()));
         }
 
         // Mot de passe : si on te l'envoie vide ou null -> ne pas modifier
@@ -160,7 +229,9 @@ public class UtilisateurService {
         }
 
         existing.setDerniereMiseAJour(LocalDateTime.now());
-        return utilisateurRepository.save(existing);
+        Utilisateur saved = utilisateurRepository.save(existing);
+        publishProfil(saved);
+        return saved;
     }
 
     /* =========================================================
@@ -187,7 +258,9 @@ public class UtilisateurService {
         if (categories != null && !categories.isEmpty()) u.setCategories(categories);
 
         u.setDerniereMiseAJour(LocalDateTime.now());
-        return utilisateurRepository.save(u);
+        Utilisateur saved = utilisateurRepository.save(u);
+        publishProfil(saved);
+        return saved;
     }
 
     /* =========================================================
@@ -199,6 +272,7 @@ public class UtilisateurService {
         u.setEstActif(actif);
         u.setDerniereMiseAJour(LocalDateTime.now());
         utilisateurRepository.save(u);
+        publishProfil(u);
     }
 
     /* =========================================================
@@ -228,30 +302,34 @@ public class UtilisateurService {
         if (!utilisateurRepository.existsById(id))
             throw new EntityNotFoundException("Impossible de supprimer, utilisateur introuvable avec l'id " + id);
         utilisateurRepository.deleteById(id);
+        publisher.publishEvent(new FreelanceProfilEvent(id));
     }
 
     /* =========================================================
        8. Compteurs (utilisés par d’autres services)
        ========================================================= */
-    @Transactional
+    /* Agrégés en mémoire puis écrits par lot (CounterService) */
     public void incrementSwipe(Long userId) {
-        Utilisateur u = getUtilisateurById(userId);
-        u.incrementNombreSwipes();
-        utilisateurRepository.save(u);
+        incrementer(Compteur.NOMBRE_SWIPES, userId);
     }
 
-    @Transactional
     public void incrementLikeRecu(Long freelanceId) {
-        Utilisateur u = getUtilisateurById(freelanceId);
-        u.incrementLikesRecus();
-        utilisateurRepository.save(u);
+        incrementer(Compteur.LIKES_RECUS, freelanceId);
     }
 
-    @Transactional
     public void incrementMatch(Long userId) {
-        Utilisateur u = getUtilisateurById(userId);
-        u.incrementMatchesObtenus();
-        utilisateurRepository.save(u);
+        incrementer(Compteur.MATCHES_OBTENUS, userId);
+    }
+
+    /* Seule lecture à jour des compteurs : l’entité porte les valeurs en base */
+    public CompteursDTO getCompteurs(Long id) {
+        return counterService.compteursUtilisateur(id);
+    }
+
+    private void incrementer(Compteur compteur, Long id) {
+        if (!utilisateurRepository.existsById(id))
+            throw new EntityNotFoundException("Utilisateur introuvable avec l'id " + id);
+        counterService.incrementer(compteur, id);
     }
 
     /* =========================================================
@@ -327,4 +405,13 @@ public class UtilisateurService {
         if (u.getPushTokens() == null) u.setPushTokens(new HashSet<>());
         if (u.getHistoriqueMissions() == null) u.setHistoriqueMissions(new ArrayList<>());
     }
+
+    /* =========================================================
+       11. Index des compétences (après commit)
+       ========================================================= */
+    private void publishProfil(Utilisateur u) {
+        if (u.getTypeUtilisateur() == TypeUtilisateur.FREELANCE) {
+            publisher.publishEvent(new FreelanceProfilEvent(u.getId()));
+        }
+    }
 }
\ No newline at end of file
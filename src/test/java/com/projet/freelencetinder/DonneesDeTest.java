@@ -0,0 +1,53 @@
+package com.projet.freelencetinder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.models.Utilisateur.TypeUtilisateur;
+import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.repository.UtilisateurRepository;
+
+/**
+ * Jeu de données des tests d’intégration (utilisateurs, missions), à importer
+ * avec {@code @Import(DonneesDeTest.class)}. Emails uniques : les tests d’une
+ * même base ne se gênent pas.
+ */
+@TestComponent
+public class DonneesDeTest {
+
+    public static final String MOT_DE_PASSE = "secret123";
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired UtilisateurRepository utilisateurRepository;
+    @Autowired MissionRepository missionRepository;
+    @Autowired PasswordEncoder passwordEncoder;
+
+    public Utilisateur utilisateur(String prefixe, TypeUtilisateur type) {
+        Utilisateur u = new Utilisateur();
+        u.setNom("Test");
+        u.setPrenom(type.name());
+        u.setEmail(prefixe + "-" + SEQUENCE.incrementAndGet() + "-" + System.nanoTime() + "@test.tn");
+        u.setMotDePasse(passwordEncoder.encode(MOT_DE_PASSE));
+        u.setTypeUtilisateur(type);
+        return utilisateurRepository.save(u);
+    }
+
+    public Mission mission(Utilisateur client) {
+        Mission m = new Mission();
+        m.setTitre("Site vitrine");
+        m.setDescription("Mission de test");
+        m.setBudget(new BigDecimal("500"));
+        m.setDelaiLivraison(LocalDate.now().plusDays(30));
+        m.setCategorie(Mission.Categorie.DEVELOPPEMENT_WEB);
+        m.setClient(client);
+        return missionRepository.save(m);
+    }
+}
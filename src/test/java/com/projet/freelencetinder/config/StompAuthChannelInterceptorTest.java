@@ -0,0 +1,137 @@
+package com.projet.freelencetinder.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+
+import com.projet.freelencetinder.models.Conversation;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.servcie.ConversationParticipantCache;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/** Trames SEND / SUBSCRIBE d’une session déjà authentifiée (CONNECT hors périmètre). */
+class StompAuthChannelInterceptorTest {
+
+    private static final long CONVERSATION = 7L;
+    private static final StompPrincipal MEMBRE = new StompPrincipal(1L, "client@test.tn");
+    private static final StompPrincipal INTRUS = new StompPrincipal(3L, "intrus@test.tn");
+
+    private final StompAuthChannelInterceptor interceptor;
+
+    StompAuthChannelInterceptorTest() {
+        ConversationParticipantCache participants = new ConversationParticipantCache(null, 100, 60_000);
+        participants.enregistrer(conversation(CONVERSATION, 1L, 2L));
+        interceptor = new StompAuthChannelInterceptor(null, null, participants);
+    }
+
+    /* =============================================================
+       SEND
+       ============================================================= */
+    @Test
+    void envoiVersLApplicationAccepte() {
+        Message<?> m = trame(StompCommand.SEND, "/app/chat/send", MEMBRE, null);
+        assertThat(interceptor.preSend(m, null)).isSameAs(m);
+    }
+
+    @Test
+    void envoiDirectAuBrokerRefuseMemePourUnMembre() {
+        for (String destination : new String[] {
+                "/topic/conversations/" + CONVERSATION, "/queue/messages",
+                "/user/intrus@test.tn/queue/messages", "/application", "/app" }) {
+            assertThatThrownBy(() -> interceptor.preSend(trame(StompCommand.SEND, destination, MEMBRE, null), null))
+                    .as(destination)
+                    .isInstanceOf(AccessDeniedException.class);
+        }
+    }
+
+    @Test
+    void envoiSansDestinationOuSansSessionRefuse() {
+        assertThatThrownBy(() -> interceptor.preSend(trame(StompCommand.SEND, null, MEMBRE, null), null))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(trame(StompCommand.SEND, "/app/chat/send", null, null), null))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessageContaining("non authentifiée");
+    }
+
+    @Test
+    void tokenExpireRefuseLesTramesSuivantes() {
+        long maintenant = System.currentTimeMillis();
+        Claims expire = Jwts.claims().setSubject(MEMBRE.email()).setExpiration(new Date(maintenant - 1_000));
+        Claims valide = Jwts.claims().setSubject(MEMBRE.email()).setExpiration(new Date(maintenant + 60_000));
+
+        assertThatThrownBy(() -> interceptor.preSend(trame(StompCommand.SEND, "/app/chat/send", MEMBRE, expire), null))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessageContaining("expiré");
+        assertThat(interceptor.preSend(trame(StompCommand.SEND, "/app/chat/send", MEMBRE, valide), null)).isNotNull();
+    }
+
+    /* =============================================================
+       SUBSCRIBE
+       ============================================================= */
+    @Test
+    void abonnementReserveAuxParticipants() {
+        String topic = "/topic/conversations/" + CONVERSATION;
+        assertThat(interceptor.preSend(trame(StompCommand.SUBSCRIBE, topic, MEMBRE, null), null)).isNotNull();
+        assertThatThrownBy(() -> interceptor.preSend(trame(StompCommand.SUBSCRIBE, topic, INTRUS, null), null))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(
+                trame(StompCommand.SUBSCRIBE, "/topic/conversations/*", MEMBRE, null), null))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void abonnementAJokerOuFormeRelaisRefuseMemePourUnMembre() {
+        for (String destination : new String[] {
+                "/topic/**", "/topic/#", "/topic/conversations.#", "/topic/conversations.*",
+                "/topic/conversations." + CONVERSATION, "/topic/conversations/{id}", "/topic/conversations/?" }) {
+            assertThatThrownBy(() -> interceptor.preSend(trame(StompCommand.SUBSCRIBE, destination, MEMBRE, null), null))
+                    .as(destination)
+                    .isInstanceOf(AccessDeniedException.class);
+        }
+        // Destinations ordinaires sans joker : non concernées
+        assertThat(interceptor.preSend(trame(StompCommand.SUBSCRIBE, "/user/queue/messages", INTRUS, null), null))
+                .isNotNull();
+    }
+
+    /* =============================================================
+       OUTILS
+       ============================================================= */
+    private static Message<byte[]> trame(StompCommand commande, String destination,
+                                         StompPrincipal user, Claims claims) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(commande);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        Map<String, Object> attrs = new HashMap<>();
+        if (claims != null) attrs.put(StompAuthChannelInterceptor.ATTR_CLAIMS, claims);
+        accessor.setSessionAttributes(attrs);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Conversation conversation(long id, long clientId, long freelanceId) {
+        Conversation c = new Conversation();
+        c.setId(id);
+        c.setClient(utilisateur(clientId, "client@test.tn"));
+        c.setFreelance(utilisateur(freelanceId, "freelance@test.tn"));
+        return c;
+    }
+
+    private static Utilisateur utilisateur(long id, String email) {
+        Utilisateur u = new Utilisateur();
+        u.setId(id);
+        u.setEmail(email);
+        return u;
+    }
+}
@@ -0,0 +1,268 @@
+package com.projet.freelencetinder.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.projet.freelencetinder.DonneesDeTest;
+import com.projet.freelencetinder.dto.SendMessageRequest;
+import com.projet.freelencetinder.models.Conversation;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.models.Utilisateur.TypeUtilisateur;
+import com.projet.freelencetinder.servcie.ConversationService;
+import com.projet.freelencetinder.servcie.JwtService;
+
+/**
+ * Chat de bout en bout à travers le relais STOMP (app.websocket.broker.relay=true)
+ * vers un vrai RabbitMQ : diffusion /topic/conversations/{id} et file utilisateur
+ * /user/queue/messages, refus (trame ERROR et motif) des abonnements et des envois
+ * hors conversation. Abonnements synchronisés sur le RECEIPT du broker.
+ */
+@Testcontainers
+@Import(DonneesDeTest.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StompBrokerRelayTests {
+
+    private static final int STOMP_PORT = 61613;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    static RabbitMQContainer rabbit = new RabbitMQContainer("rabbitmq:3.13-management-alpine")
+            .withCopyToContainer(Transferable.of("[rabbitmq_management,rabbitmq_stomp]."),
+                                 "/etc/rabbitmq/enabled_plugins")
+            .withExposedPorts(5672, 15672, STOMP_PORT);
+
+    @DynamicPropertySource
+    static void relais(DynamicPropertyRegistry registry) {
+        registry.add("app.websocket.broker.relay", () -> "true");
+        registry.add("app.websocket.broker.relay-host", rabbit::getHost);
+        registry.add("app.websocket.broker.relay-port", () -> rabbit.getMappedPort(STOMP_PORT));
+        registry.add("app.websocket.broker.login", rabbit::getAdminUsername);
+        registry.add("app.websocket.broker.passcode", rabbit::getAdminPassword);
+    }
+
+    @LocalServerPort int port;
+
+    @Autowired DonneesDeTest donnees;
+    @Autowired ConversationService conversationService;
+    @Autowired JwtService jwtService;
+    @Autowired UserDetailsService userDetailsService;
+
+    private ThreadPoolTaskScheduler scheduler;
+    private WebSocketStompClient stompClient;
+
+    @AfterEach
+    void arreter() {
+        if (stompClient != null) stompClient.stop();
+        if (scheduler != null) scheduler.shutdown();
+    }
+
+    @Test
+    void messageDiffuseSurLeTopicEtLaFileDuDestinataire() throws Exception {
+        Utilisateur client    = donnees.utilisateur("client-relais", TypeUtilisateur.CLIENT);
+        Utilisateur freelance = donnees.utilisateur("freelance-relais", TypeUtilisateur.FREELANCE);
+        Conversation conv = conversationService.findOrCreate(
+                donnees.mission(client).getId(), client.getId(), freelance.getId());
+
+        Connexion cClient    = connecter(client.getEmail());
+        Connexion cFreelance = connecter(freelance.getEmail());
+
+        BlockingQueue<Map<String, Object>> topic = new LinkedBlockingQueue<>();
+        BlockingQueue<Map<String, Object>> file  = new LinkedBlockingQueue<>();
+        abonner(cFreelance, "/topic/conversations/" + conv.getId(), topic);
+        abonner(cFreelance, "/user/queue/messages", file);
+
+        envoyer(cClient, conv, "Bonjour");
+
+        Map<String, Object> diffuse = topic.poll(10, TimeUnit.SECONDS);
+        Map<String, Object> recu    = file.poll(10, TimeUnit.SECONDS);
+        assertThat(diffuse).isNotNull().containsEntry("content", "Bonjour");
+        assertThat(recu).isNotNull().containsEntry("content", "Bonjour");
+        assertThat(recu.get("id")).isEqualTo(diffuse.get("id"));
+    }
+
+    @Test
+    void abonnementRefuseHorsConversation() throws Exception {
+        Utilisateur client    = donnees.utilisateur("client-prive", TypeUtilisateur.CLIENT);
+        Utilisateur freelance = donnees.utilisateur("freelance-prive", TypeUtilisateur.FREELANCE);
+        Utilisateur intrus    = donnees.utilisateur("intrus", TypeUtilisateur.FREELANCE);
+        Conversation conv = conversationService.findOrCreate(
+                donnees.mission(client).getId(), client.getId(), freelance.getId());
+        String topicConv = "/topic/conversations/" + conv.getId();
+
+        Connexion cClient    = connecter(client.getEmail());
+        Connexion cFreelance = connecter(freelance.getEmail());
+        BlockingQueue<Map<String, Object>> topicMembre = new LinkedBlockingQueue<>();
+        abonner(cFreelance, topicConv, topicMembre);
+
+        // Forme canonique puis forme pointée du relais : trame ERROR avec le motif, session fermée
+        BlockingQueue<Map<String, Object>> topicIntrus = new LinkedBlockingQueue<>();
+        for (String destination : List.of(topicConv, "/topic/conversations." + conv.getId())) {
+            Connexion cIntrus = connecter(intrus.getEmail());
+            cIntrus.session().subscribe(destination, collecteur(topicIntrus));
+
+            StompHeaders erreur = cIntrus.erreurs().poll(10, TimeUnit.SECONDS);
+            assertThat(erreur).as(destination).isNotNull();
+            assertThat(erreur.getFirst("message")).isEqualTo("Abonnement refusé: " + destination);
+            attendreFermeture(cIntrus);
+        }
+
+        // Nouvelle session de l’intrus, vivante (abonnement à sa propre file confirmé)
+        Connexion cIntrus = connecter(intrus.getEmail());
+        BlockingQueue<Map<String, Object>> fileIntrus = new LinkedBlockingQueue<>();
+        abonner(cIntrus, "/user/queue/messages", fileIntrus);
+
+        envoyer(cClient, conv, "Privé");
+
+        // Publication effective (reçue par le membre), rien côté intrus
+        assertThat(topicMembre.poll(10, TimeUnit.SECONDS)).isNotNull().containsEntry("content", "Privé");
+        assertThat(fileIntrus.poll(2, TimeUnit.SECONDS)).isNull();
+        assertThat(topicIntrus).isEmpty();
+        assertThat(cIntrus.erreurs()).isEmpty();
+        assertThat(cIntrus.session().isConnected()).isTrue();
+    }
+
+    @Test
+    void envoiDirectAuTopicRefuse() throws Exception {
+        Utilisateur client    = donnees.utilisateur("client-injection", TypeUtilisateur.CLIENT);
+        Utilisateur freelance = donnees.utilisateur("freelance-injection", TypeUtilisateur.FREELANCE);
+        Utilisateur intrus    = donnees.utilisateur("intrus-injection", TypeUtilisateur.FREELANCE);
+        Conversation conv = conversationService.findOrCreate(
+                donnees.mission(client).getId(), client.getId(), freelance.getId());
+        String topicConv = "/topic/conversations/" + conv.getId();
+
+        Connexion cClient    = connecter(client.getEmail());
+        Connexion cFreelance = connecter(freelance.getEmail());
+        BlockingQueue<Map<String, Object>> topicMembre = new LinkedBlockingQueue<>();
+        abonner(cFreelance, topicConv, topicMembre);
+
+        Connexion cIntrus = connecter(intrus.getEmail());
+        cIntrus.session().send(topicConv, Map.of("content", "Injecté"));
+
+        StompHeaders erreur = cIntrus.erreurs().poll(10, TimeUnit.SECONDS);
+        assertThat(erreur).isNotNull();
+        assertThat(erreur.getFirst("message")).isEqualTo("Envoi refusé: " + topicConv);
+        attendreFermeture(cIntrus);
+
+        // Premier message reçu par le membre : celui du client, jamais la trame injectée
+        envoyer(cClient, conv, "Bonjour");
+        assertThat(topicMembre.poll(10, TimeUnit.SECONDS)).isNotNull().containsEntry("content", "Bonjour");
+        assertThat(topicMembre.poll(2, TimeUnit.SECONDS)).isNull();
+    }
+
+    /* =============================================================
+       OUTILS
+       ============================================================= */
+    /** Session STOMP et trames ERROR reçues (seul cas où le handler de session reçoit une trame). */
+    private record Connexion(StompSession session, BlockingQueue<StompHeaders> erreurs) {}
+
+    private Connexion connecter(String email) throws Exception {
+        if (stompClient == null) {
+            scheduler = new ThreadPoolTaskScheduler();
+            scheduler.setThreadNamePrefix("stomp-test-");
+            scheduler.initialize();
+            stompClient = new WebSocketStompClient(
+                    new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+            // Texte pour le motif des trames ERROR, JSON pour les messages
+            stompClient.setMessageConverter(new CompositeMessageConverter(
+                    List.of(new StringMessageConverter(), new MappingJackson2MessageConverter())));
+            stompClient.setTaskScheduler(scheduler);          // délai d’attente des RECEIPT
+        }
+        UserDetails user = userDetailsService.loadUserByUsername(email);
+        String token = jwtService.generateAccessToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        StompHeaders connect = new StompHeaders();
+        connect.add("Authorization", "Bearer " + token);
+        BlockingQueue<StompHeaders> erreurs = new LinkedBlockingQueue<>();
+        StompSession session = stompClient.connectAsync("http://localhost:{port}/ws", new WebSocketHttpHeaders(),
+                        connect, new StompSessionHandlerAdapter() {
+                            @Override
+                            public void handleFrame(StompHeaders headers, Object payload) {
+                                erreurs.add(headers);
+                            }
+                        }, port)
+                .get(10, TimeUnit.SECONDS);
+        session.setAutoReceipt(true);
+        return new Connexion(session, erreurs);
+    }
+
+    /* Abonnement confirmé par le RECEIPT du broker : aucun message publié ensuite n’est manqué. */
+    private static void abonner(Connexion c, String destination,
+                                BlockingQueue<Map<String, Object>> recus) throws Exception {
+        CompletableFuture<Void> receipt = new CompletableFuture<>();
+        StompSession.Subscription sub = c.session().subscribe(destination, collecteur(recus));
+        sub.addReceiptTask(() -> receipt.complete(null));
+        sub.addReceiptLostTask(() -> receipt.completeExceptionally(
+                new IllegalStateException("Pas de RECEIPT pour " + destination)));
+        receipt.get(20, TimeUnit.SECONDS);
+    }
+
+    private static void envoyer(Connexion c, Conversation conv, String texte) {
+        c.session().send("/app/chat/send", new SendMessageRequest(conv.getId(), texte, "TEXT", null, null));
+    }
+
+    /* Après une trame ERROR, le serveur ferme la connexion. */
+    private static void attendreFermeture(Connexion c) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (c.session().isConnected() && System.nanoTime() < limite) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        assertThat(c.session().isConnected()).as("session fermée après ERROR").isFalse();
+    }
+
+    private static StompFrameHandler collecteur(BlockingQueue<Map<String, Object>> recus) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void handleFrame(StompHeaders headers, Object payload) {
+                recus.add((Map<String, Object>) payload);
+            }
+        };
+    }
+}
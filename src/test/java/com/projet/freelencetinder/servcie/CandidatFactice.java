@@ -0,0 +1,68 @@
+package com.projet.freelencetinder.servcie;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.repository.MissionRepository.MissionCandidatCompte;
+
+/** Ligne de candidat en mémoire (projection MissionCandidatCompte) pour les tests et benchmarks du scoring. */
+final class CandidatFactice implements MissionCandidatCompte {
+
+    private final Long id;
+    private final Mission.Categorie categorie;
+    private final BigDecimal budget;
+    private final LocalDateTime datePublication;
+    private final LocalDate dateLimiteCandidature;
+    private final Integer competencesRequises;
+    private final Long competencesCommunes;
+
+    CandidatFactice(long id, Mission.Categorie categorie, BigDecimal budget, LocalDateTime datePublication,
+                    LocalDate dateLimiteCandidature, int competencesRequises, long competencesCommunes) {
+        this.id = id;
+        this.categorie = categorie;
+        this.budget = budget;
+        this.datePublication = datePublication;
+        this.dateLimiteCandidature = dateLimiteCandidature;
+        this.competencesRequises = competencesRequises;
+        this.competencesCommunes = competencesCommunes;
+    }
+
+    /** Candidat publié aujourd’hui, sans date limite, budget 100. */
+    static CandidatFactice simple(long id, int competencesRequises, long competencesCommunes) {
+        return new CandidatFactice(id, Mission.Categorie.AUTRE, BigDecimal.valueOf(100), LocalDateTime.now(),
+                                   null, competencesRequises, competencesCommunes);
+    }
+
+    /** n candidats pseudo-aléatoires (graine fixe : mêmes données d’un lancement à l’autre). */
+    static List<CandidatFactice> aleatoires(int n, long graine) {
+        Random r = new Random(graine);
+        Mission.Categorie[] categories = Mission.Categorie.values();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = LocalDate.now();
+        List<CandidatFactice> liste = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int requises = r.nextInt(6);
+            liste.add(new CandidatFactice(i + 1,
+                    categories[r.nextInt(categories.length)],
+                    BigDecimal.valueOf(50 + r.nextInt(2000)),
+                    now.minusDays(r.nextInt(40)),
+                    r.nextBoolean() ? today.plusDays(r.nextInt(15)) : null,
+                    requises,
+                    requises == 0 ? 0 : r.nextInt(requises + 1)));
+        }
+        return liste;
+    }
+
+    @Override public Long getId()                         { return id; }
+    @Override public Mission.Categorie getCategorie()     { return categorie; }
+    @Override public BigDecimal getBudget()               { return budget; }
+    @Override public LocalDateTime getDatePublication()   { return datePublication; }
+    @Override public LocalDate getDateLimiteCandidature() { return dateLimiteCandidature; }
+    @Override public Integer getCompetencesRequises()     { return competencesRequises; }
+    @Override public Long getCompetencesCommunes()        { return competencesCommunes; }
+}
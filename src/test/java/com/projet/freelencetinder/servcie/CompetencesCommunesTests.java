@@ -0,0 +1,103 @@
+package com.projet.freelencetinder.servcie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.projet.freelencetinder.DonneesDeTest;
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.models.Utilisateur.TypeUtilisateur;
+import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.repository.MissionRepository.MissionCandidat;
+import com.projet.freelencetinder.repository.MissionRepository.MissionCandidatCompte;
+import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.repository.UtilisateurRepository.FreelanceCandidatCompte;
+import com.projet.freelencetinder.servcie.SkillDictionary.SkillVector;
+
+/**
+ * Requêtes SQL de repli et SkillVector comptent les mêmes compétences : une
+ * compétence saisie sous plusieurs graphies (« Java », « java ») compte une fois,
+ * une compétence vide ne compte pas.
+ */
+@Testcontainers
+@Import(DonneesDeTest.class)
+@SpringBootTest
+@Transactional
+class CompetencesCommunesTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final Set<String> REQUISES = Set.of("Java", "java ", "SQL", "  ");
+    private static final Set<String> PROFIL   = Set.of("JAVA", "sql", " Java");
+
+    @Autowired DonneesDeTest donnees;
+    @Autowired MissionRepository missionRepository;
+    @Autowired UtilisateurRepository utilisateurRepository;
+
+    @Test
+    void missionsCompteesCommeSkillVector() {
+        Utilisateur client = donnees.utilisateur("client-competences", TypeUtilisateur.CLIENT);
+        Mission mission = donnees.mission(client);
+        mission.setCompetencesRequises(REQUISES);
+        missionRepository.saveAndFlush(mission);
+
+        SkillDictionary dictionnaire = new SkillDictionary();
+        SkillVector requises = dictionnaire.vecteur(REQUISES);
+        SkillVector profil   = dictionnaire.vecteurConnu(PROFIL);
+
+        MissionCandidatCompte sql;
+        try (Stream<MissionCandidatCompte> s = missionRepository.streamRecommendationCandidates(
+                -1L, Mission.Statut.EN_ATTENTE, LocalDate.now(), SkillDictionary.normaliser(PROFIL))) {
+            sql = s.filter(c -> c.getId().equals(mission.getId())).findFirst().orElseThrow();
+        }
+        MissionCandidat index;
+        try (Stream<MissionCandidat> s = missionRepository.streamRecommendationCandidatesByIdIn(
+                -1L, Mission.Statut.EN_ATTENTE, LocalDate.now(), Set.of(mission.getId()))) {
+            index = s.findFirst().orElseThrow();
+        }
+
+        assertThat(requises.cardinalite()).isEqualTo(2);
+        assertThat(sql.getCompetencesRequises()).isEqualTo(requises.cardinalite());
+        assertThat(index.getCompetencesRequises()).isEqualTo(requises.cardinalite());
+        assertThat(sql.getCompetencesCommunes()).isEqualTo(profil.intersection(requises)).isEqualTo(2);
+    }
+
+    @Test
+    void freelancesComptesCommeSkillVector() {
+        Utilisateur client = donnees.utilisateur("client-competences", TypeUtilisateur.CLIENT);
+        Mission mission = donnees.mission(client);
+        Utilisateur freelance = donnees.utilisateur("freelance-competences", TypeUtilisateur.FREELANCE);
+        freelance.setCompetences(PROFIL);
+        freelance.setCategories(Set.of(mission.getCategorie()));
+        utilisateurRepository.saveAndFlush(freelance);
+
+        SkillDictionary dictionnaire = new SkillDictionary();
+        SkillVector profil   = dictionnaire.vecteur(PROFIL);
+        SkillVector requises = dictionnaire.vecteurConnu(REQUISES);
+
+        FreelanceCandidatCompte sql;
+        try (Stream<FreelanceCandidatCompte> s = utilisateurRepository.streamRecommendationCandidatesAvecCompte(
+                client.getId(), mission.getId(), mission.getCategorie(), TypeUtilisateur.FREELANCE,
+                SkillDictionary.normaliser(REQUISES))) {
+            sql = s.filter(c -> c.getId().equals(freelance.getId())).findFirst().orElseThrow();
+        }
+
+        assertThat(profil.cardinalite()).isEqualTo(2);
+        assertThat(sql.getCompetencesCommunes()).isEqualTo(requises.intersection(profil)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,160 @@
+package com.projet.freelencetinder.servcie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.projet.freelencetinder.DonneesDeTest;
+import com.projet.freelencetinder.dto.ConversationSummaryDto;
+import com.projet.freelencetinder.dto.SendMessageRequest;
+import com.projet.freelencetinder.models.Conversation;
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.models.Utilisateur.TypeUtilisateur;
+import com.projet.freelencetinder.repository.ChatMessageRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Boîte de réception : non-lus exacts par conversation et par participant, et
+ * nombre de requêtes SQL constant quelle que soit la taille de la page
+ * (mission, participants et non-lus chargés sans N+1).
+ */
+@Testcontainers
+@Import(DonneesDeTest.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ConversationInboxTests {
+
+    private static final int CONVERSATIONS = 50;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired DonneesDeTest donnees;
+    @Autowired ConversationService conversationService;
+    @Autowired ChatMessageService chatMessageService;
+    @Autowired ChatMessageRepository messageRepository;
+    @Autowired EntityManagerFactory emf;
+
+    private Utilisateur client;
+    private final List<Conversation> conversations = new ArrayList<>();
+    private final Map<Long, Utilisateur> freelances = new HashMap<>();
+
+    /* Conversation i : i % 3 messages du client, i % 4 messages du freelance, aucun lu. */
+    @BeforeEach
+    void preparer() {
+        client = donnees.utilisateur("client-inbox", TypeUtilisateur.CLIENT);
+        Mission mission = donnees.mission(client);
+        for (int i = 0; i < CONVERSATIONS; i++) {
+            Utilisateur freelance = donnees.utilisateur("freelance-inbox", TypeUtilisateur.FREELANCE);
+            Conversation conv = conversationService.findOrCreate(mission.getId(), client.getId(), freelance.getId());
+            conversations.add(conv);
+            freelances.put(conv.getId(), freelance);
+
+            for (int n = 0; n < pourFreelance(i); n++) envoyer(conv, client, "Client " + n);
+            for (int n = 0; n < pourClient(i); n++)    envoyer(conv, freelance, "Freelance " + n);
+        }
+    }
+
+    @Test
+    void nonLusExactsPourChaqueParticipant() {
+        Map<Long, Integer> cote = nonLus(conversationService.getUserConversations(client.getId(), 0, CONVERSATIONS));
+
+        assertThat(cote).hasSize(CONVERSATIONS);
+        for (int i = 0; i < CONVERSATIONS; i++) {
+            Conversation conv = conversations.get(i);
+            Utilisateur freelance = freelances.get(conv.getId());
+
+            assertThat(cote.get(conv.getId())).as("client, conversation %d", i).isEqualTo(pourClient(i));
+            assertThat(nonLus(conversationService.getUserConversations(freelance.getId(), 0, 10)))
+                    .as("freelance, conversation %d", i)
+                    .containsExactly(Map.entry(conv.getId(), pourFreelance(i)));
+
+            // Compteurs égaux au décompte des messages non lus en base
+            assertThat(messageRepository.countByConversationIdAndReceiverIdAndSeenFalse(conv.getId(), client.getId()))
+                    .isEqualTo(pourClient(i));
+            assertThat(messageRepository.countByConversationIdAndReceiverIdAndSeenFalse(conv.getId(), freelance.getId()))
+                    .isEqualTo(pourFreelance(i));
+        }
+        assertThat(conversationService.getTotalUnread(client.getId()))
+                .isEqualTo(cote.values().stream().mapToLong(Integer::longValue).sum());
+    }
+
+    @Test
+    void lectureRemetAZeroLeSeulLecteur() {
+        Conversation conv = conversations.get(7);               // 3 non-lus client, 1 non-lu freelance
+        Utilisateur freelance = freelances.get(conv.getId());
+
+        chatMessageService.markConversationSeen(conv.getId(), freelance.getId());
+
+        assertThat(nonLus(conversationService.getUserConversations(freelance.getId(), 0, 10)))
+                .containsExactly(Map.entry(conv.getId(), 0));
+        assertThat(nonLus(conversationService.getUserConversations(client.getId(), 0, CONVERSATIONS)))
+                .containsEntry(conv.getId(), pourClient(7));
+    }
+
+    @Test
+    void pageDeCinquanteConversationsEnUneRequete() {
+        Statistics stats = statistiques();
+
+        List<ConversationSummaryDto> page = conversationService.getUserConversations(client.getId(), 0, CONVERSATIONS);
+
+        assertThat(page).hasSize(CONVERSATIONS);
+        assertThat(page).allSatisfy(c -> {
+            assertThat(c.getMissionTitre()).isEqualTo("Site vitrine");
+            assertThat(c.getOtherUserNomComplet()).isNotBlank();
+        });
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void nombreDeRequetesIndependantDeLaTaille() {
+        Statistics stats = statistiques();
+        conversationService.getUserConversations(client.getId(), 0, 5);
+        long petitePage = stats.getPrepareStatementCount();
+
+        stats.clear();
+        conversationService.getUserConversations(client.getId(), 0, CONVERSATIONS);
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(petitePage);
+    }
+
+    /* =============================================================
+       OUTILS
+       ============================================================= */
+    private static int pourClient(int i)    { return i % 4; }
+    private static int pourFreelance(int i) { return i % 3; }
+
+    private void envoyer(Conversation conv, Utilisateur expediteur, String texte) {
+        chatMessageService.sendMessage(new SendMessageRequest(conv.getId(), texte, "TEXT", null, null),
+                                       expediteur.getId());
+    }
+
+    private static Map<Long, Integer> nonLus(List<ConversationSummaryDto> page) {
+        Map<Long, Integer> parConversation = new HashMap<>();
+        page.forEach(c -> parConversation.put(c.getConversationId(), c.getUnreadCount()));
+        return parConversation;
+    }
+
+    private Statistics statistiques() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+}
@@ -0,0 +1,197 @@
+package com.projet.freelencetinder.servcie;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.servcie.MissionScoringEngine.MissionScore;
+import com.projet.freelencetinder.servcie.SkillDictionary.SkillVector;
+
+/**
+ * Recommandations de missions pour un freelance, sur les mêmes missions en mémoire :
+ *  - ancienChemin : chemin d’origine de SwipeService (findAll, filtres sur les entités,
+ *    tri complet avec le score recalculé dans le comparateur, puis score recalculé
+ *    pour les 40 retenus) ;
+ *  - cheminActuel : listes de l’index de compétences, lignes de projection relues
+ *    par id, compétences communes par SkillVector et top K borné (un score par candidat).
+ * Les accès base ne sont pas mesurés : seul le travail côté JVM est comparé.
+ * Hors build : lancer {@link #main} depuis l’IDE ou
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.projet.freelencetinder.servcie.MissionScoringEngineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})   // 1M entités Mission en mémoire
+public class MissionScoringEngineBenchmark {
+
+    private static final int K = 40;
+    private static final int COMPETENCES = 300;
+
+    @Param({"10000", "100000", "1000000"})
+    int missions;
+
+    private final MissionScoringEngine engine = new MissionScoringEngine();
+    private final Set<Mission.Categorie> prefs = EnumSet.of(Mission.Categorie.DEVELOPPEMENT_WEB);
+    private Utilisateur freelance;
+    private Set<Long> dejaSwipes;
+
+    /* Ancien chemin : entités complètes, comme renvoyées par findAll() */
+    private List<Mission> toutes;
+
+    /* Chemin actuel : index de compétences et lignes de projection */
+    private SkillVector profil;
+    private Map<Long, SkillVector> vecteursMission;
+    private Map<Integer, Set<Long>> listes;
+    private Set<Long> sansCompetence;
+    private Map<Long, CandidatFactice> lignes;
+
+    @Setup
+    public void preparer() {
+        Random r = new Random(42);
+        SkillDictionary dictionnaire = new SkillDictionary();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = LocalDate.now();
+
+        freelance = new Utilisateur();
+        freelance.setTarifHoraire(40.0);
+        freelance.setCompetences(new HashSet<>(competences(r, 8)));
+        profil = dictionnaire.vecteur(freelance.getCompetences());
+
+        toutes = new ArrayList<>(missions);
+        vecteursMission = new HashMap<>();
+        listes = new HashMap<>();
+        sansCompetence = new HashSet<>();
+        lignes = new HashMap<>();
+        dejaSwipes = new HashSet<>();
+        Mission.Categorie[] categories = Mission.Categorie.values();
+
+        for (long id = 1; id <= missions; id++) {
+            Mission m = new Mission();
+            m.setId(id);
+            m.setStatut(r.nextInt(10) < 8 ? Mission.Statut.EN_ATTENTE : Mission.Statut.EN_COURS);
+            m.setCategorie(categories[r.nextInt(categories.length)]);
+            m.setBudget(BigDecimal.valueOf(50 + r.nextInt(2000)));
+            m.setDatePublication(now.minusDays(r.nextInt(40)));
+            m.setDateLimiteCandidature(r.nextBoolean() ? today.plusDays(r.nextInt(15) - 2) : null);
+            m.setCompetencesRequises(new HashSet<>(competences(r, r.nextInt(6))));
+            toutes.add(m);
+            if (r.nextInt(100) == 0) dejaSwipes.add(id);
+
+            // Index et projection : missions ouvertes seulement, comme l’index et la requête SQL
+            if (!m.estDisponiblePourSwipe()) continue;
+            SkillVector v = dictionnaire.vecteur(m.getCompetencesRequises());
+            vecteursMission.put(id, v);
+            if (v.estVide()) sansCompetence.add(id);
+            final long missionId = id;
+            v.forEach(c -> listes.computeIfAbsent(c, x -> new HashSet<>()).add(missionId));
+            lignes.put(id, new CandidatFactice(id, m.getCategorie(), m.getBudget(), m.getDatePublication(),
+                                               m.getDateLimiteCandidature(), v.cardinalite(), 0));
+        }
+    }
+
+    @Benchmark
+    public List<Map.Entry<Mission, Integer>> ancienChemin() {
+        return toutes.stream()
+                .filter(Mission::estDisponiblePourSwipe)
+                .filter(m -> !dejaSwipes.contains(m.getId()))
+                .filter(m -> hasSkillOverlap(m, freelance))
+                .sorted(Comparator.comparingInt(
+                        (Mission m) -> scoreMissionPourFreelance(m, freelance, prefs))
+                        .reversed())
+                .limit(K)
+                .map(m -> (Map.Entry<Mission, Integer>)
+                        new AbstractMap.SimpleImmutableEntry<>(m, scoreMissionPourFreelance(m, freelance, prefs)))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<MissionScore> cheminActuel() {
+        Set<Long> ids = new HashSet<>(sansCompetence);
+        profil.forEach(c -> {
+            Set<Long> liste = listes.get(c);
+            if (liste != null) ids.addAll(liste);
+        });
+        return engine.topK(ids.stream()
+                        .filter(id -> !dejaSwipes.contains(id))      // NOT EXISTS de la requête
+                        .map(lignes::get),
+                freelance, prefs,
+                c -> profil.intersection(vecteursMission.get(c.getId())), K);
+    }
+
+    /* =============================================================
+       ANCIEN SCORING (SwipeService d’origine, reproduit à l’identique)
+       ============================================================= */
+    private static boolean hasSkillOverlap(Mission m, Utilisateur freelance) {
+        if (m.getCompetencesRequises() == null || m.getCompetencesRequises().isEmpty()) return true;
+        if (freelance.getCompetences() == null) return false;
+        return m.getCompetencesRequises().stream().anyMatch(freelance.getCompetences()::contains);
+    }
+
+    private static int scoreMissionPourFreelance(Mission m, Utilisateur freelance,
+                                                 Set<Mission.Categorie> categoriesPref) {
+        int score = 0;
+        long commonSkills = m.getCompetencesRequises() != null
+                ? m.getCompetencesRequises().stream()
+                .filter(freelance.getCompetences()::contains).count()
+                : 0;
+        score += (int) (commonSkills * 4);
+        if (categoriesPref.contains(m.getCategorie())) score += 5;
+        if (freelance.getTarifHoraire() == null
+                || (m.getBudget() != null && freelance.getTarifHoraire() != null
+                && m.getBudget().doubleValue() >= freelance.getTarifHoraire())) {
+            score += 2;
+        }
+        long ageDays = ChronoUnit.DAYS.between(m.getDatePublication(), LocalDateTime.now());
+        score += (int) Math.max(0, 21 - ageDays);
+        if (m.getDateLimiteCandidature() != null) {
+            long toDeadline = ChronoUnit.DAYS.between(LocalDate.now(), m.getDateLimiteCandidature());
+            if (toDeadline <= 7 && toDeadline >= 0) score += 2;
+        }
+        return score;
+    }
+
+    private static List<String> competences(Random r, int n) {
+        List<String> noms = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) noms.add("competence-" + r.nextInt(COMPETENCES));
+        return noms;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MissionScoringEngineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.projet.freelencetinder.servcie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.servcie.MissionScoringEngine.MissionScore;
+
+/** Top K borné de MissionScoringEngine comparé à un tri complet du même flux. */
+class MissionScoringEngineTest {
+
+    private final MissionScoringEngine engine = new MissionScoringEngine();
+    private final Set<Mission.Categorie> prefs = EnumSet.of(Mission.Categorie.DEVELOPPEMENT_WEB);
+
+    @Test
+    void topKEgalAuTriCompletTronque() {
+        Utilisateur freelance = freelance(40.0);
+        List<CandidatFactice> candidats = CandidatFactice.aleatoires(5_000, 42);
+
+        List<MissionScore> top = engine.topK(candidats.stream(), freelance, prefs,
+                MissionScoringEngine::competencesCommunes, 40);
+
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> attendu = candidats.stream()
+                .filter(c -> c.getCompetencesCommunes() > 0 || c.getCompetencesRequises() == 0)
+                .sorted(Comparator.comparingInt((CandidatFactice c) -> engine.score(c,
+                                c.getCompetencesCommunes().intValue(), freelance, prefs, today, now))
+                        .reversed()
+                        .thenComparing(CandidatFactice::getId))
+                .limit(40)
+                .map(CandidatFactice::getId)
+                .toList();
+
+        assertThat(top).extracting(ms -> ms.candidat().getId()).containsExactlyElementsOf(attendu);
+    }
+
+    @Test
+    void meilleurDAbordEtIdCroissantAScoreEgal() {
+        List<CandidatFactice> candidats = List.of(
+                CandidatFactice.simple(3, 1, 1),
+                CandidatFactice.simple(1, 1, 1),
+                CandidatFactice.simple(2, 2, 2));
+
+        List<MissionScore> top = engine.topK(candidats.stream(), freelance(null), prefs,
+                MissionScoringEngine::competencesCommunes, 10);
+
+        assertThat(top).extracting(ms -> ms.candidat().getId()).containsExactly(2L, 1L, 3L);
+        assertThat(top.get(0).score()).isGreaterThan(top.get(1).score());
+        assertThat(top.get(1).score()).isEqualTo(top.get(2).score());
+    }
+
+    @Test
+    void missionAvecCompetencesSansRecoupementEcartee() {
+        List<CandidatFactice> candidats = List.of(
+                CandidatFactice.simple(1, 3, 0),    // compétences requises, aucune en commun
+                CandidatFactice.simple(2, 0, 0),    // aucune compétence requise
+                CandidatFactice.simple(3, 2, 1));
+
+        List<MissionScore> top = engine.topK(candidats.stream(), freelance(null), prefs,
+                MissionScoringEngine::competencesCommunes, 10);
+
+        assertThat(top).extracting(ms -> ms.candidat().getId()).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(top).filteredOn(ms -> ms.candidat().getId() == 3L)
+                .singleElement()
+                .satisfies(ms -> {
+                    assertThat(ms.matchedSkills()).isEqualTo(1);
+                    assertThat(ms.totalRequiredSkills()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    void profilVideNeGardeQueLesMissionsSansCompetenceRequise() {
+        List<CandidatFactice> candidats = List.of(
+                CandidatFactice.simple(1, 2, 0),
+                CandidatFactice.simple(2, 0, 0),
+                CandidatFactice.simple(3, 0, 0));
+
+        List<MissionScore> top = engine.topK(candidats.stream(), freelance(null), prefs,
+                MissionScoringEngine::competencesCommunes, 10);
+
+        assertThat(top).extracting(ms -> ms.candidat().getId()).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void kPlusGrandQueLeFluxOuFluxVide() {
+        assertThat(engine.topK(CandidatFactice.aleatoires(5, 7).stream(), freelance(null), prefs,
+                c -> 1, 100)).hasSize(5);
+        assertThat(engine.topK(List.<CandidatFactice>of().stream(), freelance(null), prefs,
+                MissionScoringEngine::competencesCommunes, 40)).isEmpty();
+    }
+
+    private static Utilisateur freelance(Double tarifHoraire) {
+        Utilisateur u = new Utilisateur();
+        u.setTypeUtilisateur(Utilisateur.TypeUtilisateur.FREELANCE);
+        u.setTarifHoraire(tarifHoraire);
+        return u;
+    }
+}
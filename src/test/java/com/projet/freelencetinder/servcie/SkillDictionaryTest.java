@@ -0,0 +1,141 @@
+package com.projet.freelencetinder.servcie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.projet.freelencetinder.servcie.SkillDictionary.SkillVector;
+
+/** Intersections de SkillVector (ids triés ou bitset) et internement du dictionnaire. */
+class SkillDictionaryTest {
+
+    /* =============================================================
+       SKILLVECTOR
+       ============================================================= */
+    @Test
+    void cardinaliteIgnoreLesDoublons() {
+        SkillVector v = SkillVector.of(3, 3, 0, 63, 64);
+        assertThat(v.cardinalite()).isEqualTo(4);
+        assertThat(v.estVide()).isFalse();
+        assertThat(elements(v)).containsExactly(0, 3, 63, 64);
+    }
+
+    @Test
+    void vecteurVide() {
+        assertThat(SkillVector.of()).isSameAs(SkillVector.VIDE);
+        assertThat(SkillVector.VIDE.estVide()).isTrue();
+        assertThat(SkillVector.VIDE.intersection(SkillVector.of(1, 2))).isZero();
+        assertThat(elements(SkillVector.VIDE)).isEmpty();
+    }
+
+    @Test
+    void intersectionEntreMotsDeLongueursDifferentes() {
+        SkillVector court = SkillVector.of(1, 5, 63);              // un mot
+        SkillVector large = SkillVector.of(5, 63, 64, 130, 191);   // trois mots
+
+        assertThat(court.intersection(large)).isEqualTo(2);
+        assertThat(large.intersection(court)).isEqualTo(2);
+        assertThat(large.intersection(large)).isEqualTo(5);
+    }
+
+    @Test
+    void intersectionAuxBordsDesMots() {
+        assertThat(SkillVector.of(63).intersection(SkillVector.of(64))).isZero();
+        assertThat(SkillVector.of(0, 64, 128).intersection(SkillVector.of(64, 128, 192))).isEqualTo(2);
+    }
+
+    @Test
+    void intersectionAvecNull() {
+        assertThat(SkillVector.of(1, 2, 3).intersection(null)).isZero();
+    }
+
+    @Test
+    void intersectionEntreIdsEloignes() {
+        // Ids élevés du dictionnaire : représentation triée, pas de bitset de 16 000 mots
+        SkillVector creux  = SkillVector.of(1_000_000, 7, 500_000);
+        SkillVector dense  = SkillVector.of(0, 1, 2, 3, 5, 7, 11, 13);
+        SkillVector autre  = SkillVector.of(500_000, 1_000_000, 1_000_001);
+
+        assertThat(creux.intersection(autre)).isEqualTo(2);
+        assertThat(creux.intersection(dense)).isEqualTo(1);
+        assertThat(dense.intersection(creux)).isEqualTo(1);
+        assertThat(elements(creux)).containsExactly(7, 500_000, 1_000_000);
+    }
+
+    @Test
+    void intersectionEgaleAuComptageParEnsembles() {
+        Random r = new Random(7);
+        for (int essai = 0; essai < 600; essai++) {
+            // Petits ids denses (bitset) comme grands ids épars (triés), mélangés
+            int[] a = r.ints(r.nextInt(40), 0, essai % 3 == 0 ? 64 : 300_000).toArray();
+            int[] b = r.ints(r.nextInt(40), 0, essai % 2 == 0 ? 128 : 300_000).toArray();
+            Set<Integer> communs = new HashSet<>(Arrays.stream(a).boxed().toList());
+            communs.retainAll(Arrays.stream(b).boxed().toList());
+
+            assertThat(SkillVector.of(a).intersection(SkillVector.of(b))).isEqualTo(communs.size());
+            assertThat(SkillVector.of(b).intersection(SkillVector.of(a))).isEqualTo(communs.size());
+            assertThat(SkillVector.of(a).cardinalite())
+                    .isEqualTo((int) Arrays.stream(a).distinct().count());
+        }
+    }
+
+    /* =============================================================
+       DICTIONNAIRE
+       ============================================================= */
+    @Test
+    void internementStableEtNormalise() {
+        SkillDictionary d = new SkillDictionary();
+        int java = d.interner("Java");
+
+        assertThat(d.interner("  java ")).isEqualTo(java);
+        assertThat(d.chercher("JAVA")).isEqualTo(java);
+        assertThat(d.interner("Spring Boot")).isNotEqualTo(java);
+        assertThat(d.nom(java)).isEqualTo("java");
+        assertThat(d.interner("   ")).isEqualTo(-1);
+        assertThat(d.chercher("kotlin")).isEqualTo(-1);
+    }
+
+    @Test
+    void vecteurConnuIgnoreLesCompetencesJamaisVues() {
+        SkillDictionary d = new SkillDictionary();
+        SkillVector mission = d.vecteur(List.of("Java", "SQL"));
+        SkillVector profil  = d.vecteurConnu(List.of("java", "Kotlin"));
+
+        assertThat(profil.cardinalite()).isEqualTo(1);
+        assertThat(profil.intersection(mission)).isEqualTo(1);
+        assertThat(d.chercher("kotlin")).isEqualTo(-1);
+    }
+
+    @Test
+    void graphiesDifferentesCompteesUneFois() {
+        SkillDictionary d = new SkillDictionary();
+        SkillVector mission = d.vecteur(List.of("Java", "java ", "SQL", "  "));
+        SkillVector profil  = d.vecteurConnu(List.of("JAVA", " Java", "sql"));
+
+        assertThat(mission.cardinalite()).isEqualTo(2);
+        assertThat(profil.cardinalite()).isEqualTo(2);
+        assertThat(profil.intersection(mission)).isEqualTo(2);
+    }
+
+    @Test
+    void normalisationIdentiqueALowerTrimSql() {
+        assertThat(SkillDictionary.normaliser("  React Native ")).isEqualTo("react native");
+        // Espaces internes conservés, comme LOWER(TRIM(c))
+        assertThat(SkillDictionary.normaliser("React  Native")).isEqualTo("react  native");
+        assertThat(SkillDictionary.normaliser(List.of(" SQL", "Java "))).containsExactlyInAnyOrder("sql", "java");
+        assertThat(SkillDictionary.normaliser(List.of())).containsExactly("");
+    }
+
+    private static List<Integer> elements(SkillVector v) {
+        List<Integer> ids = new ArrayList<>();
+        v.forEach(ids::add);
+        return ids;
+    }
+}